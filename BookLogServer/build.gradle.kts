@@ -32,6 +32,9 @@ dependencies {
     // Hibernate SQLite Dialect
     implementation("com.github.gwenn:sqlite-dialect:0.1.2")
     
+    // Compressed bitmaps for in-memory facet and library tag indexes
+    implementation("org.roaringbitmap:RoaringBitmap:1.0.6")
+    
     // JWT
     implementation("io.jsonwebtoken:jjwt-api:0.11.5")
     runtimeOnly("io.jsonwebtoken:jjwt-impl:0.11.5")
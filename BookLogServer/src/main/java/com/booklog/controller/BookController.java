@@ -1,17 +1,37 @@
 package com.booklog.controller;
 
+import com.booklog.dto.BookSuggestion;
+import com.booklog.dto.CursorPage;
+import com.booklog.dto.FacetedBookPage;
+import com.booklog.dto.IsbnBatchResult;
 import com.booklog.entity.Book;
+import com.booklog.entity.BookImportJob;
+import com.booklog.entity.BookImportJob.ImportFormat;
+import com.booklog.entity.LibraryBook.BookStatus;
 import com.booklog.repository.BookRepository;
+import com.booklog.security.CurrentUser;
+import com.booklog.security.UserPrincipal;
+import com.booklog.service.BookImportService;
+import com.booklog.service.BookService;
+import com.booklog.service.IsbnBatchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1/books")
 @Tag(name = "Book Management", description = "APIs for managing books")
@@ -20,6 +40,15 @@ public class BookController {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private IsbnBatchService isbnBatchService;
+
+    @Autowired
+    private BookImportService bookImportService;
+
     @GetMapping
     @Operation(
         summary = "List all books",
@@ -33,10 +62,26 @@ public class BookController {
         return ResponseEntity.ok(bookRepository.findAll(pageable));
     }
 
+    @GetMapping("/scroll")
+    @Operation(
+        summary = "Scroll all books",
+        description = "Returns books in id order using an opaque cursor instead of an offset, without a total count",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved books"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+        }
+    )
+    public ResponseEntity<CursorPage<Book>> scrollBooks(
+        @Parameter(description = "Cursor from the previous page, omitted for the first page") @RequestParam(required = false) String cursor,
+        @Parameter(description = "Page size (at most 100)") @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(bookService.scrollBooks(cursor, size));
+    }
+
     @GetMapping("/search")
     @Operation(
         summary = "Search books",
-        description = "Search books by query string",
+        description = "Search books by title, subtitle or author, ranked by relevance",
         responses = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved books"),
             @ApiResponse(responseCode = "400", description = "Invalid search parameters")
@@ -46,6 +91,174 @@ public class BookController {
         @Parameter(description = "Search query") @RequestParam String query,
         Pageable pageable
     ) {
-        return ResponseEntity.ok(bookRepository.searchBooks(query, pageable));
+        return ResponseEntity.ok(bookService.searchBooks(query, pageable));
+    }
+
+    @GetMapping("/facets")
+    @Operation(
+        summary = "Filter books by facets",
+        description = "Returns a page of books matching the selected categories, languages and publishers " +
+                      "together with book counts for each facet value",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved books and facet counts"),
+            @ApiResponse(responseCode = "503", description = "Facet index is still being built at startup")
+        }
+    )
+    public ResponseEntity<FacetedBookPage> findBooksWithFacets(
+        @Parameter(description = "Categories (any of)") @RequestParam(required = false) List<String> category,
+        @Parameter(description = "Languages (any of)") @RequestParam(required = false) List<String> language,
+        @Parameter(description = "Publishers (any of)") @RequestParam(required = false) List<String> publisher,
+        Pageable pageable
+    ) {
+        return ResponseEntity.ok(bookService.findBooksWithFacets(category, language, publisher, pageable));
+    }
+
+    @GetMapping("/popular")
+    @Operation(
+        summary = "Popular books",
+        description = "Returns the highest-rated books, weighting external ratings and BookLog users' ratings by their count",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved popular books"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit")
+        }
+    )
+    public ResponseEntity<List<Book>> getPopularBooks(
+        @Parameter(description = "Category") @RequestParam(required = false) String category,
+        @Parameter(description = "Language") @RequestParam(required = false) String language,
+        @Parameter(description = "Number of books (at most 50)") @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(bookService.getPopularBooks(category, language, limit));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(
+        summary = "Suggest titles and authors",
+        description = "Returns titles and author names starting with the prefix, weighted by ratings count",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved suggestions")
+        }
+    )
+    public ResponseEntity<List<BookSuggestion>> suggestBooks(
+        @Parameter(description = "Prefix typed so far") @RequestParam String prefix,
+        @Parameter(description = "Maximum number of suggestions (at most 10)") @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(bookService.suggestBooks(prefix, limit));
+    }
+
+    @GetMapping("/suggest/stats")
+    @Operation(
+        summary = "Suggest index statistics",
+        description = "Returns the size and last build time of the autocomplete index",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics")
+        }
+    )
+    public ResponseEntity<Map<String, Object>> getSuggestIndexStats() {
+        return ResponseEntity.ok(bookService.getSuggestIndexStats());
+    }
+
+    @PostMapping("/isbn:batch")
+    @Operation(
+        summary = "Resolve ISBNs in bulk",
+        description = "Looks up many scanned ISBN-10/ISBN-13 codes at once and returns one result per code in " +
+                      "request order. If addToLibraryStatus is set, every hit is added to the library with that status",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Successfully resolved ISBNs"),
+            @ApiResponse(responseCode = "400", description = "Too many or missing ISBNs")
+        }
+    )
+    public ResponseEntity<List<IsbnBatchResult>> resolveIsbns(
+        @CurrentUser UserPrincipal currentUser,
+        @Valid @RequestBody IsbnBatchRequest isbnBatchRequest
+    ) {
+        return ResponseEntity.ok(isbnBatchService.resolveIsbns(
+                currentUser.getId(),
+                isbnBatchRequest.getIsbns(),
+                isbnBatchRequest.getAddToLibraryStatus()));
+    }
+
+    @PostMapping("/imports")
+    @PreAuthorize("hasAnyRole('IMPORTER', 'ADMIN')")
+    @Operation(
+        summary = "Import a catalog file",
+        description = "Streams a CSV (with header row) or JSON-lines catalog from the request body into the books table. " +
+                      "Books are matched by ISBN: new ones are inserted and changed ones updated. " +
+                      "The import runs in the background; poll the returned job for progress",
+        responses = {
+            @ApiResponse(responseCode = "202", description = "Import queued"),
+            @ApiResponse(responseCode = "403", description = "Caller is not an importer or admin")
+        }
+    )
+    public ResponseEntity<BookImportJob> importBooks(
+        @CurrentUser UserPrincipal currentUser,
+        @Parameter(description = "File format") @RequestParam ImportFormat format,
+        @Parameter(description = "Original file name") @RequestParam(required = false) String fileName,
+        HttpServletRequest request
+    ) throws IOException {
+        BookImportJob job = bookImportService.startImport(currentUser.getId(), format, fileName, request.getInputStream());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/imports/{jobId}")
+    @PreAuthorize("hasAnyRole('IMPORTER', 'ADMIN')")
+    @Operation(
+        summary = "Get import progress",
+        description = "Returns the status and row counts of an import job",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved import job"),
+            @ApiResponse(responseCode = "403", description = "Caller is not an importer or admin"),
+            @ApiResponse(responseCode = "404", description = "Import job not found")
+        }
+    )
+    public ResponseEntity<BookImportJob> getImport(
+        @CurrentUser UserPrincipal currentUser,
+        @PathVariable Long jobId
+    ) {
+        return ResponseEntity.ok(bookImportService.getImport(currentUser.getId(), jobId));
+    }
+
+    @PostMapping("/imports/{jobId}/resume")
+    @PreAuthorize("hasAnyRole('IMPORTER', 'ADMIN')")
+    @Operation(
+        summary = "Resume a failed import",
+        description = "Continues a failed import after the last committed chunk",
+        responses = {
+            @ApiResponse(responseCode = "202", description = "Import queued"),
+            @ApiResponse(responseCode = "400", description = "Import has not failed"),
+            @ApiResponse(responseCode = "403", description = "Caller is not an importer or admin"),
+            @ApiResponse(responseCode = "404", description = "Import job not found")
+        }
+    )
+    public ResponseEntity<BookImportJob> resumeImport(
+        @CurrentUser UserPrincipal currentUser,
+        @PathVariable Long jobId
+    ) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(bookImportService.resumeImport(currentUser.getId(), jobId));
+    }
+
+    // Request classes
+    public static class IsbnBatchRequest {
+        @jakarta.validation.constraints.NotEmpty(message = "ISBNs are required")
+        @jakarta.validation.constraints.Size(max = 500, message = "At most 500 ISBNs per request")
+        private List<String> isbns;
+
+        private BookStatus addToLibraryStatus;
+
+        // Getters and setters
+        public List<String> getIsbns() {
+            return isbns;
+        }
+
+        public void setIsbns(List<String> isbns) {
+            this.isbns = isbns;
+        }
+
+        public BookStatus getAddToLibraryStatus() {
+            return addToLibraryStatus;
+        }
+
+        public void setAddToLibraryStatus(BookStatus addToLibraryStatus) {
+            this.addToLibraryStatus = addToLibraryStatus;
+        }
     }
 }
@@ -0,0 +1,185 @@
+package com.booklog.controller;
+
+import com.booklog.dto.CursorPage;
+import com.booklog.entity.ReadingHighlight;
+import com.booklog.security.CurrentUser;
+import com.booklog.security.UserPrincipal;
+import com.booklog.service.ReadingHighlightService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashSet;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/highlights")
+public class HighlightController {
+
+    private final ReadingHighlightService readingHighlightService;
+
+    public HighlightController(ReadingHighlightService readingHighlightService) {
+        this.readingHighlightService = readingHighlightService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Page<ReadingHighlight>> getUserHighlights(
+            @CurrentUser UserPrincipal currentUser,
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        Page<ReadingHighlight> highlights = readingHighlightService.getUserHighlights(currentUser.getId(), pageable);
+        return ResponseEntity.ok(highlights);
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ReadingHighlight>> scrollUserHighlights(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        CursorPage<ReadingHighlight> highlights = readingHighlightService.scrollUserHighlights(currentUser.getId(), cursor, size);
+        return ResponseEntity.ok(highlights);
+    }
+
+    @GetMapping("/books/{bookId}")
+    public ResponseEntity<Page<ReadingHighlight>> getUserHighlightsForBook(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long bookId,
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        Page<ReadingHighlight> highlights = readingHighlightService.getUserHighlightsForBook(
+                currentUser.getId(), bookId, pageable);
+        return ResponseEntity.ok(highlights);
+    }
+
+    @GetMapping("/{highlightId}")
+    public ResponseEntity<ReadingHighlight> getUserHighlight(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long highlightId) {
+        
+        ReadingHighlight highlight = readingHighlightService.getUserHighlight(currentUser.getId(), highlightId);
+        return ResponseEntity.ok(highlight);
+    }
+
+    @PostMapping("/books/{bookId}")
+    public ResponseEntity<ReadingHighlight> createHighlight(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long bookId,
+            @Valid @RequestBody HighlightRequest highlightRequest) {
+        
+        ReadingHighlight highlight = readingHighlightService.createHighlight(
+                currentUser.getId(), bookId, highlightRequest.toHighlight());
+        return ResponseEntity.ok(highlight);
+    }
+
+    @PutMapping("/{highlightId}")
+    public ResponseEntity<ReadingHighlight> updateHighlight(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long highlightId,
+            @Valid @RequestBody HighlightRequest highlightRequest) {
+        
+        ReadingHighlight highlight = readingHighlightService.updateHighlight(
+                currentUser.getId(), highlightId, highlightRequest.toHighlight(), highlightRequest.getFavorite());
+        return ResponseEntity.ok(highlight);
+    }
+
+    @DeleteMapping("/{highlightId}")
+    public ResponseEntity<?> deleteHighlight(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long highlightId) {
+        
+        readingHighlightService.deleteHighlight(currentUser.getId(), highlightId);
+        return ResponseEntity.ok().build();
+    }
+
+    // Request classes
+    public static class HighlightRequest {
+        @jakarta.validation.constraints.NotBlank(message = "Content is required")
+        @jakarta.validation.constraints.Size(max = 4000, message = "Content must be at most 4000 characters")
+        private String content;
+
+        @jakarta.validation.constraints.NotNull(message = "Page is required")
+        private Integer page;
+
+        private String location;
+        private String color;
+
+        @jakarta.validation.constraints.Size(max = 2000, message = "Note must be at most 2000 characters")
+        private String note;
+
+        private List<String> tags;
+        private Boolean favorite;
+
+        public ReadingHighlight toHighlight() {
+            ReadingHighlight highlight = new ReadingHighlight();
+            highlight.setContent(content);
+            highlight.setPage(page);
+            highlight.setLocation(location);
+            highlight.setColor(color);
+            highlight.setNote(note);
+            highlight.setTags(tags != null ? new HashSet<>(tags) : null);
+            highlight.setFavorite(Boolean.TRUE.equals(favorite));
+            return highlight;
+        }
+
+        // Getters and setters
+        public String getContent() {
+            return content;
+        }
+
+        public void setContent(String content) {
+            this.content = content;
+        }
+
+        public Integer getPage() {
+            return page;
+        }
+
+        public void setPage(Integer page) {
+            this.page = page;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public void setLocation(String location) {
+            this.location = location;
+        }
+
+        public String getColor() {
+            return color;
+        }
+
+        public void setColor(String color) {
+            this.color = color;
+        }
+
+        public String getNote() {
+            return note;
+        }
+
+        public void setNote(String note) {
+            this.note = note;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public Boolean getFavorite() {
+            return favorite;
+        }
+
+        public void setFavorite(Boolean favorite) {
+            this.favorite = favorite;
+        }
+    }
+}
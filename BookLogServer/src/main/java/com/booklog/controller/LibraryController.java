@@ -1,16 +1,26 @@
 package com.booklog.controller;
 
+import com.booklog.dto.CursorPage;
+import com.booklog.dto.FacetCount;
+import com.booklog.dto.LibraryBulkResult;
+import com.booklog.dto.LibraryStatsSummary;
 import com.booklog.entity.LibraryBook;
 import com.booklog.entity.LibraryBook.BookStatus;
 import com.booklog.security.CurrentUser;
 import com.booklog.security.UserPrincipal;
 import com.booklog.service.LibraryBookService;
+import com.booklog.service.LibraryExportService;
+import com.booklog.service.LibraryExportService.ExportFormat;
+import com.booklog.web.ConditionalGet;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -20,12 +30,15 @@ import java.util.Map;
 public class LibraryController {
 
     private final LibraryBookService libraryBookService;
+    private final LibraryExportService libraryExportService;
 
-    public LibraryController(LibraryBookService libraryBookService) {
+    public LibraryController(LibraryBookService libraryBookService, LibraryExportService libraryExportService) {
         this.libraryBookService = libraryBookService;
+        this.libraryExportService = libraryExportService;
     }
 
     @GetMapping
+    @ConditionalGet
     public ResponseEntity<Page<LibraryBook>> getUserLibrary(
             @CurrentUser UserPrincipal currentUser,
             @PageableDefault(size = 20) Pageable pageable) {
@@ -34,7 +47,19 @@ public class LibraryController {
         return ResponseEntity.ok(books);
     }
 
+    @GetMapping("/scroll")
+    @ConditionalGet
+    public ResponseEntity<CursorPage<LibraryBook>> scrollUserLibrary(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        CursorPage<LibraryBook> books = libraryBookService.scrollUserLibrary(currentUser.getId(), cursor, size);
+        return ResponseEntity.ok(books);
+    }
+
     @GetMapping("/status/{status}")
+    @ConditionalGet
     public ResponseEntity<Page<LibraryBook>> getUserLibraryByStatus(
             @CurrentUser UserPrincipal currentUser,
             @PathVariable BookStatus status,
@@ -45,18 +70,32 @@ public class LibraryController {
     }
 
     @GetMapping("/tag")
+    @ConditionalGet
     public ResponseEntity<Page<LibraryBook>> getUserLibraryByTag(
             @CurrentUser UserPrincipal currentUser,
             @RequestParam(required = false) BookStatus status,
-            @RequestParam String tag,
+            @RequestParam(required = false) List<String> tag,
+            @RequestParam(required = false) List<String> anyTag,
+            @RequestParam(required = false) List<String> excludeTag,
             @PageableDefault(size = 20) Pageable pageable) {
         
-        Page<LibraryBook> books = libraryBookService.getUserLibraryByStatusAndTag(
-                currentUser.getId(), status, tag, pageable);
+        Page<LibraryBook> books = libraryBookService.getUserLibraryByTags(
+                currentUser.getId(), status, tag, anyTag, excludeTag, pageable);
         return ResponseEntity.ok(books);
     }
 
+    @GetMapping("/tags")
+    @ConditionalGet
+    public ResponseEntity<List<FacetCount>> getTagCounts(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam(required = false) BookStatus status) {
+        
+        List<FacetCount> counts = libraryBookService.getTagCounts(currentUser.getId(), status);
+        return ResponseEntity.ok(counts);
+    }
+
     @GetMapping("/books/{bookId}")
+    @ConditionalGet
     public ResponseEntity<LibraryBook> getUserLibraryBook(
             @CurrentUser UserPrincipal currentUser,
             @PathVariable Long bookId) {
@@ -66,6 +105,7 @@ public class LibraryController {
     }
 
     @GetMapping("/books/{bookId}/exists")
+    @ConditionalGet
     public ResponseEntity<Map<String, Boolean>> checkBookInLibrary(
             @CurrentUser UserPrincipal currentUser,
             @PathVariable Long bookId) {
@@ -105,6 +145,11 @@ public class LibraryController {
             @PathVariable Long bookId,
             @Valid @RequestBody UpdateProgressRequest updateProgressRequest) {
         
+        // Buffered pings are written in the next flush; reads already return them
+        if (libraryBookService.bufferBookProgress(currentUser.getId(), bookId, updateProgressRequest.getProgress())) {
+            return ResponseEntity.accepted().build();
+        }
+        
         LibraryBook book = libraryBookService.updateBookProgress(
                 currentUser.getId(), 
                 bookId, 
@@ -160,7 +205,25 @@ public class LibraryController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/books:bulk")
+    public ResponseEntity<List<LibraryBulkResult>> applyBulkChanges(
+            @CurrentUser UserPrincipal currentUser,
+            @Valid @RequestBody BulkChangeRequest bulkChangeRequest) {
+        
+        List<LibraryBulkResult> results = libraryBookService.applyBulkChanges(
+                currentUser.getId(),
+                bulkChangeRequest.getBookIds(),
+                bulkChangeRequest.getStatus(),
+                bulkChangeRequest.getProgress(),
+                bulkChangeRequest.getTags(),
+                bulkChangeRequest.getFavorite(),
+                bulkChangeRequest.isRemove());
+        
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping("/stats")
+    @ConditionalGet
     public ResponseEntity<Map<BookStatus, Long>> getLibraryStats(
             @CurrentUser UserPrincipal currentUser) {
         
@@ -168,7 +231,17 @@ public class LibraryController {
         return ResponseEntity.ok(stats);
     }
 
+    @GetMapping("/stats/summary")
+    @ConditionalGet
+    public ResponseEntity<LibraryStatsSummary> getLibraryStatsSummary(
+            @CurrentUser UserPrincipal currentUser) {
+        
+        LibraryStatsSummary summary = libraryBookService.getLibraryStatsSummary(currentUser.getId());
+        return ResponseEntity.ok(summary);
+    }
+
     @GetMapping("/recent")
+    @ConditionalGet
     public ResponseEntity<List<LibraryBook>> getRecentlyReadBooks(
             @CurrentUser UserPrincipal currentUser) {
         
@@ -176,6 +249,24 @@ public class LibraryController {
         return ResponseEntity.ok(books);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLibrary(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam(defaultValue = "csv") String format) {
+        
+        Long userId = currentUser.getId();
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        libraryExportService.checkExportable(userId);
+        StreamingResponseBody body = out -> libraryExportService.writeExport(userId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("library." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     // Request classes
     public static class UpdateStatusRequest {
         private BookStatus status;
@@ -254,4 +345,71 @@ public class LibraryController {
             this.tags = tags;
         }
     }
+
+    public static class BulkChangeRequest {
+        @jakarta.validation.constraints.NotEmpty(message = "Book ids are required")
+        @jakarta.validation.constraints.Size(max = 500, message = "At most 500 books per request")
+        private List<Long> bookIds;
+
+        private BookStatus status;
+
+        @jakarta.validation.constraints.Min(value = 0, message = "Progress must be at least 0")
+        @jakarta.validation.constraints.Max(value = 100, message = "Progress must be at most 100")
+        private Integer progress;
+
+        private List<String> tags;
+
+        private Boolean favorite;
+
+        private boolean remove;
+
+        // Getters and setters
+        public List<Long> getBookIds() {
+            return bookIds;
+        }
+
+        public void setBookIds(List<Long> bookIds) {
+            this.bookIds = bookIds;
+        }
+
+        public BookStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(BookStatus status) {
+            this.status = status;
+        }
+
+        public Integer getProgress() {
+            return progress;
+        }
+
+        public void setProgress(Integer progress) {
+            this.progress = progress;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public Boolean getFavorite() {
+            return favorite;
+        }
+
+        public void setFavorite(Boolean favorite) {
+            this.favorite = favorite;
+        }
+
+        public boolean isRemove() {
+            return remove;
+        }
+
+        public void setRemove(boolean remove) {
+            this.remove = remove;
+        }
+    }
 }
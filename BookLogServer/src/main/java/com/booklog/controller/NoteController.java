@@ -0,0 +1,182 @@
+package com.booklog.controller;
+
+import com.booklog.dto.CursorPage;
+import com.booklog.dto.NoteSearchResult;
+import com.booklog.entity.ReadingNote;
+import com.booklog.security.CurrentUser;
+import com.booklog.security.UserPrincipal;
+import com.booklog.service.NoteSearchService;
+import com.booklog.service.ReadingNoteService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashSet;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/notes")
+public class NoteController {
+
+    private final ReadingNoteService readingNoteService;
+    private final NoteSearchService noteSearchService;
+
+    public NoteController(ReadingNoteService readingNoteService, NoteSearchService noteSearchService) {
+        this.readingNoteService = readingNoteService;
+        this.noteSearchService = noteSearchService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Page<ReadingNote>> getUserNotes(
+            @CurrentUser UserPrincipal currentUser,
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        Page<ReadingNote> notes = readingNoteService.getUserNotes(currentUser.getId(), pageable);
+        return ResponseEntity.ok(notes);
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ReadingNote>> scrollUserNotes(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        CursorPage<ReadingNote> notes = readingNoteService.scrollUserNotes(currentUser.getId(), cursor, size);
+        return ResponseEntity.ok(notes);
+    }
+
+    @GetMapping("/books/{bookId}")
+    public ResponseEntity<Page<ReadingNote>> getUserNotesForBook(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long bookId,
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        Page<ReadingNote> notes = readingNoteService.getUserNotesForBook(currentUser.getId(), bookId, pageable);
+        return ResponseEntity.ok(notes);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Page<NoteSearchResult>> searchNotesAndHighlights(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam String query,
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        Page<NoteSearchResult> results = noteSearchService.search(currentUser.getId(), query, pageable);
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping("/{noteId}")
+    public ResponseEntity<ReadingNote> getUserNote(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long noteId) {
+        
+        ReadingNote note = readingNoteService.getUserNote(currentUser.getId(), noteId);
+        return ResponseEntity.ok(note);
+    }
+
+    @PostMapping("/books/{bookId}")
+    public ResponseEntity<ReadingNote> createNote(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long bookId,
+            @Valid @RequestBody NoteRequest noteRequest) {
+        
+        ReadingNote note = readingNoteService.createNote(currentUser.getId(), bookId, noteRequest.toNote());
+        return ResponseEntity.ok(note);
+    }
+
+    @PutMapping("/{noteId}")
+    public ResponseEntity<ReadingNote> updateNote(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long noteId,
+            @Valid @RequestBody NoteRequest noteRequest) {
+        
+        ReadingNote note = readingNoteService.updateNote(
+                currentUser.getId(), noteId, noteRequest.toNote(), noteRequest.getFavorite());
+        return ResponseEntity.ok(note);
+    }
+
+    @DeleteMapping("/{noteId}")
+    public ResponseEntity<?> deleteNote(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long noteId) {
+        
+        readingNoteService.deleteNote(currentUser.getId(), noteId);
+        return ResponseEntity.ok().build();
+    }
+
+    // Request classes
+    public static class NoteRequest {
+        @jakarta.validation.constraints.NotBlank(message = "Content is required")
+        @jakarta.validation.constraints.Size(max = 10000, message = "Content must be at most 10000 characters")
+        private String content;
+
+        private Integer page;
+        private String chapter;
+        private List<String> tags;
+        private List<String> images;
+        private Boolean favorite;
+
+        public ReadingNote toNote() {
+            ReadingNote note = new ReadingNote();
+            note.setContent(content);
+            note.setPage(page);
+            note.setChapter(chapter);
+            note.setTags(tags != null ? new HashSet<>(tags) : null);
+            note.setImages(images);
+            note.setFavorite(Boolean.TRUE.equals(favorite));
+            return note;
+        }
+
+        // Getters and setters
+        public String getContent() {
+            return content;
+        }
+
+        public void setContent(String content) {
+            this.content = content;
+        }
+
+        public Integer getPage() {
+            return page;
+        }
+
+        public void setPage(Integer page) {
+            this.page = page;
+        }
+
+        public String getChapter() {
+            return chapter;
+        }
+
+        public void setChapter(String chapter) {
+            this.chapter = chapter;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public List<String> getImages() {
+            return images;
+        }
+
+        public void setImages(List<String> images) {
+            this.images = images;
+        }
+
+        public Boolean getFavorite() {
+            return favorite;
+        }
+
+        public void setFavorite(Boolean favorite) {
+            this.favorite = favorite;
+        }
+    }
+}
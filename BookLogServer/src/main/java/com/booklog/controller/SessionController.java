@@ -0,0 +1,248 @@
+package com.booklog.controller;
+
+import com.booklog.dto.CursorPage;
+import com.booklog.entity.Book;
+import com.booklog.entity.ReadingSession;
+import com.booklog.entity.ReadingSession.Emotion;
+import com.booklog.security.CurrentUser;
+import com.booklog.security.UserPrincipal;
+import com.booklog.service.ReadingSessionService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Mapped at the version root so that the batch endpoint can be /sessions:batch
+@RestController
+@RequestMapping("/api/v1")
+public class SessionController {
+
+    private final ReadingSessionService readingSessionService;
+
+    public SessionController(ReadingSessionService readingSessionService) {
+        this.readingSessionService = readingSessionService;
+    }
+
+    @GetMapping("/sessions")
+    public ResponseEntity<Page<ReadingSession>> getUserSessions(
+            @CurrentUser UserPrincipal currentUser,
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        Page<ReadingSession> sessions = readingSessionService.getUserSessions(currentUser.getId(), pageable);
+        return ResponseEntity.ok(sessions);
+    }
+
+    @GetMapping("/sessions/scroll")
+    public ResponseEntity<CursorPage<ReadingSession>> scrollUserSessions(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        CursorPage<ReadingSession> sessions = readingSessionService.scrollUserSessions(currentUser.getId(), cursor, size);
+        return ResponseEntity.ok(sessions);
+    }
+
+    @GetMapping("/sessions/books/{bookId}")
+    public ResponseEntity<Page<ReadingSession>> getUserSessionsForBook(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long bookId,
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        Page<ReadingSession> sessions = readingSessionService.getUserSessionsForBook(currentUser.getId(), bookId, pageable);
+        return ResponseEntity.ok(sessions);
+    }
+
+    @GetMapping("/sessions/{sessionId}")
+    public ResponseEntity<ReadingSession> getUserSession(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long sessionId) {
+        
+        ReadingSession session = readingSessionService.getUserSession(currentUser.getId(), sessionId);
+        return ResponseEntity.ok(session);
+    }
+
+    @PostMapping("/sessions/books/{bookId}")
+    public ResponseEntity<ReadingSession> createSession(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long bookId,
+            @Valid @RequestBody SessionRequest sessionRequest) {
+        
+        ReadingSession session = readingSessionService.createSession(
+                currentUser.getId(), bookId, sessionRequest.toSession());
+        return ResponseEntity.ok(session);
+    }
+
+    @PostMapping("/sessions:batch")
+    public ResponseEntity<List<ReadingSession>> createSessions(
+            @CurrentUser UserPrincipal currentUser,
+            @Valid @RequestBody SessionBatchRequest sessionBatchRequest) {
+        
+        List<ReadingSession> sessions = readingSessionService.createSessions(currentUser.getId(),
+                sessionBatchRequest.getSessions().stream().map(SessionRequest::toSession).toList());
+        return ResponseEntity.ok(sessions);
+    }
+
+    @PutMapping("/sessions/{sessionId}")
+    public ResponseEntity<ReadingSession> updateSession(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long sessionId,
+            @Valid @RequestBody SessionRequest sessionRequest) {
+        
+        ReadingSession session = readingSessionService.updateSession(
+                currentUser.getId(), sessionId, sessionRequest.toSession());
+        return ResponseEntity.ok(session);
+    }
+
+    @DeleteMapping("/sessions/{sessionId}")
+    public ResponseEntity<?> deleteSession(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long sessionId) {
+        
+        readingSessionService.deleteSession(currentUser.getId(), sessionId);
+        return ResponseEntity.ok().build();
+    }
+
+    // Request classes
+    public static class SessionRequest {
+        // Only read by the batch endpoint
+        private Long bookId;
+
+        private LocalDateTime date;
+
+        @jakarta.validation.constraints.NotNull(message = "Start page is required")
+        @jakarta.validation.constraints.Min(value = 0, message = "Start page must not be negative")
+        private Integer startPage;
+
+        @jakarta.validation.constraints.NotNull(message = "End page is required")
+        @jakarta.validation.constraints.Min(value = 0, message = "End page must not be negative")
+        private Integer endPage;
+
+        @jakarta.validation.constraints.NotNull(message = "Duration is required")
+        @jakarta.validation.constraints.Min(value = 0, message = "Duration must not be negative")
+        private Integer duration;
+
+        @jakarta.validation.constraints.Size(max = 4000, message = "Notes must be at most 4000 characters")
+        private String notes;
+
+        private Emotion emotion;
+
+        @jakarta.validation.constraints.Min(value = 1, message = "Rating must be between 1 and 5")
+        @jakarta.validation.constraints.Max(value = 5, message = "Rating must be between 1 and 5")
+        private Integer rating;
+
+        private String location;
+
+        public ReadingSession toSession() {
+            ReadingSession session = new ReadingSession();
+            if (bookId != null) {
+                Book book = new Book();
+                book.setId(bookId);
+                session.setBook(book);
+            }
+            session.setDate(date);
+            session.setStartPage(startPage);
+            session.setEndPage(endPage);
+            session.setDuration(duration);
+            session.setNotes(notes);
+            session.setEmotion(emotion);
+            session.setRating(rating);
+            session.setLocation(location);
+            return session;
+        }
+
+        // Getters and setters
+
+        public Long getBookId() {
+            return bookId;
+        }
+
+        public void setBookId(Long bookId) {
+            this.bookId = bookId;
+        }
+
+        public LocalDateTime getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDateTime date) {
+            this.date = date;
+        }
+
+        public Integer getStartPage() {
+            return startPage;
+        }
+
+        public void setStartPage(Integer startPage) {
+            this.startPage = startPage;
+        }
+
+        public Integer getEndPage() {
+            return endPage;
+        }
+
+        public void setEndPage(Integer endPage) {
+            this.endPage = endPage;
+        }
+
+        public Integer getDuration() {
+            return duration;
+        }
+
+        public void setDuration(Integer duration) {
+            this.duration = duration;
+        }
+
+        public String getNotes() {
+            return notes;
+        }
+
+        public void setNotes(String notes) {
+            this.notes = notes;
+        }
+
+        public Emotion getEmotion() {
+            return emotion;
+        }
+
+        public void setEmotion(Emotion emotion) {
+            this.emotion = emotion;
+        }
+
+        public Integer getRating() {
+            return rating;
+        }
+
+        public void setRating(Integer rating) {
+            this.rating = rating;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public void setLocation(String location) {
+            this.location = location;
+        }
+    }
+
+    public static class SessionBatchRequest {
+        @jakarta.validation.constraints.NotEmpty(message = "Sessions are required")
+        @jakarta.validation.constraints.Size(max = ReadingSessionService.MAX_BATCH_SIZE,
+                message = "At most 500 sessions per batch")
+        private List<@Valid SessionRequest> sessions;
+
+        // Getters and setters
+        public List<SessionRequest> getSessions() {
+            return sessions;
+        }
+
+        public void setSessions(List<SessionRequest> sessions) {
+            this.sessions = sessions;
+        }
+    }
+}
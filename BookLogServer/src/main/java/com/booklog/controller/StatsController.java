@@ -0,0 +1,81 @@
+package com.booklog.controller;
+
+import com.booklog.dto.ReadingHeatmap;
+import com.booklog.dto.ReadingStreakStats;
+import com.booklog.dto.ReadingTimeStats;
+import com.booklog.dto.StatsDashboard;
+import com.booklog.entity.ReadingRollup.Period;
+import com.booklog.security.CurrentUser;
+import com.booklog.security.UserPrincipal;
+import com.booklog.service.ReadingHeatmapService;
+import com.booklog.service.ReadingRollupService;
+import com.booklog.service.ReadingStreakService;
+import com.booklog.service.StatsDashboardService;
+import com.booklog.service.UserService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/v1/stats")
+public class StatsController {
+
+    private final ReadingRollupService readingRollupService;
+    private final ReadingStreakService readingStreakService;
+    private final ReadingHeatmapService readingHeatmapService;
+    private final StatsDashboardService statsDashboardService;
+    private final UserService userService;
+
+    public StatsController(ReadingRollupService readingRollupService,
+                           ReadingStreakService readingStreakService,
+                           ReadingHeatmapService readingHeatmapService,
+                           StatsDashboardService statsDashboardService,
+                           UserService userService) {
+        this.readingRollupService = readingRollupService;
+        this.readingStreakService = readingStreakService;
+        this.readingHeatmapService = readingHeatmapService;
+        this.statsDashboardService = statsDashboardService;
+        this.userService = userService;
+    }
+
+    @GetMapping("/reading-time")
+    public ResponseEntity<ReadingTimeStats> getReadingTime(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam(defaultValue = "DAY") Period period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        
+        LocalDate end = to != null ? to : LocalDate.now(userService.getZone(currentUser.getId()));
+        LocalDate start = from != null ? from : switch (period) {
+            case DAY -> end.minusDays(29);
+            case WEEK -> end.minusWeeks(11);
+            case MONTH -> end.minusMonths(11);
+        };
+        ReadingTimeStats stats = readingRollupService.getReadingTime(currentUser.getId(), period, start, end);
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/streak")
+    public ResponseEntity<ReadingStreakStats> getStreak(@CurrentUser UserPrincipal currentUser) {
+        ReadingStreakStats streak = readingStreakService.getStreak(currentUser.getId());
+        return ResponseEntity.ok(streak);
+    }
+
+    @GetMapping("/heatmap")
+    public ResponseEntity<ReadingHeatmap> getHeatmap(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam(required = false) Integer year) {
+        
+        int heatmapYear = year != null ? year : LocalDate.now(userService.getZone(currentUser.getId())).getYear();
+        ReadingHeatmap heatmap = readingHeatmapService.getHeatmap(currentUser.getId(), heatmapYear);
+        return ResponseEntity.ok(heatmap);
+    }
+
+    @GetMapping("/dashboard")
+    public ResponseEntity<StatsDashboard> getDashboard(@CurrentUser UserPrincipal currentUser) {
+        StatsDashboard dashboard = statsDashboardService.getDashboard(currentUser.getId());
+        return ResponseEntity.ok(dashboard);
+    }
+}
@@ -0,0 +1,67 @@
+package com.booklog.controller;
+
+import com.booklog.dto.SyncMutation;
+import com.booklog.dto.SyncMutationResult;
+import com.booklog.security.CurrentUser;
+import com.booklog.security.UserPrincipal;
+import com.booklog.service.SyncMutationService;
+import com.booklog.service.SyncService;
+import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+    private final SyncMutationService syncMutationService;
+
+    public SyncController(SyncService syncService, SyncMutationService syncMutationService) {
+        this.syncService = syncService;
+        this.syncMutationService = syncMutationService;
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<StreamingResponseBody> getChanges(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam(required = false) String since) {
+        
+        Long userId = currentUser.getId();
+        long sinceId = syncService.parseToken(since);
+        StreamingResponseBody body = out -> syncService.writeChanges(userId, sinceId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @PostMapping("/mutations")
+    public ResponseEntity<List<SyncMutationResult>> applyMutations(
+            @CurrentUser UserPrincipal currentUser,
+            @Valid @RequestBody MutationBatchRequest mutationBatchRequest) {
+        
+        List<SyncMutationResult> results = syncMutationService.applyMutations(
+                currentUser.getId(), mutationBatchRequest.getMutations());
+        return ResponseEntity.ok(results);
+    }
+
+    // Request classes
+    public static class MutationBatchRequest {
+        @jakarta.validation.constraints.NotEmpty(message = "Mutations are required")
+        @jakarta.validation.constraints.Size(max = 500, message = "At most 500 mutations per request")
+        private List<@Valid SyncMutation> mutations;
+
+        // Getters and setters
+        public List<SyncMutation> getMutations() {
+            return mutations;
+        }
+
+        public void setMutations(List<SyncMutation> mutations) {
+            this.mutations = mutations;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.booklog.entity.User;
 import com.booklog.security.CurrentUser;
 import com.booklog.security.UserPrincipal;
 import com.booklog.service.UserService;
+import com.booklog.web.ConditionalGet;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,6 +21,7 @@ public class UserController {
     }
 
     @GetMapping("/me")
+    @ConditionalGet
     public ResponseEntity<User> getCurrentUser(@CurrentUser UserPrincipal currentUser) {
         User user = userService.getUserById(currentUser.getId());
         return ResponseEntity.ok(user);
@@ -39,6 +41,7 @@ public class UserController {
         User userDetails = new User();
         userDetails.setName(updateUserRequest.getName());
         userDetails.setPhotoUrl(updateUserRequest.getPhotoUrl());
+        userDetails.setTimeZone(updateUserRequest.getTimeZone());
         
         User updatedUser = userService.updateUser(currentUser.getId(), userDetails);
         return ResponseEntity.ok(updatedUser);
@@ -80,6 +83,7 @@ public class UserController {
     public static class UpdateUserRequest {
         private String name;
         private String photoUrl;
+        private String timeZone;
 
         // Getters and setters
         public String getName() {
@@ -97,6 +101,14 @@ public class UserController {
         public void setPhotoUrl(String photoUrl) {
             this.photoUrl = photoUrl;
         }
+
+        public String getTimeZone() {
+            return timeZone;
+        }
+
+        public void setTimeZone(String timeZone) {
+            this.timeZone = timeZone;
+        }
     }
 
     public static class UpdatePasswordRequest {
@@ -0,0 +1,14 @@
+package com.booklog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BookReadingTotal {
+    private Long bookId;
+    private String title;
+    private String thumbnail;
+    private long sessions;
+    private long minutes;
+}
@@ -0,0 +1,17 @@
+package com.booklog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BookSuggestion {
+    private String text;
+    private SuggestionType type;
+    private Long bookId;
+    private long weight;
+
+    public enum SuggestionType {
+        TITLE, AUTHOR
+    }
+}
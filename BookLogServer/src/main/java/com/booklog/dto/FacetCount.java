@@ -0,0 +1,11 @@
+package com.booklog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FacetCount {
+    private String value;
+    private int count;
+}
@@ -0,0 +1,16 @@
+package com.booklog.dto;
+
+import com.booklog.entity.Book;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class FacetedBookPage {
+    private Page<Book> books;
+    private Map<String, List<FacetCount>> facets;
+}
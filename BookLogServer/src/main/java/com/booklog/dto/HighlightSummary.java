@@ -0,0 +1,17 @@
+package com.booklog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class HighlightSummary {
+    private Long id;
+    private Long bookId;
+    private String bookTitle;
+    private String content;
+    private Integer page;
+    private LocalDateTime date;
+}
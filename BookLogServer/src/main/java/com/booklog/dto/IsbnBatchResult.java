@@ -0,0 +1,15 @@
+package com.booklog.dto;
+
+import com.booklog.entity.Book;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class IsbnBatchResult {
+    private String isbn;
+    private boolean found;
+    private Book book;
+    // Null unless the caller asked to add hits to the library
+    private Boolean addedToLibrary;
+}
@@ -0,0 +1,18 @@
+package com.booklog.dto;
+
+import com.booklog.entity.LibraryBook;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LibraryBulkResult {
+    private Long bookId;
+    private Outcome outcome;
+    // Null unless the entry was updated
+    private LibraryBook libraryBook;
+
+    public enum Outcome {
+        UPDATED, REMOVED, NOT_FOUND
+    }
+}
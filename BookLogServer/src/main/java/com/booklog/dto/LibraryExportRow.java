@@ -0,0 +1,30 @@
+package com.booklog.dto;
+
+import com.booklog.entity.LibraryBook.BookStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class LibraryExportRow {
+    private Long bookId;
+    private String title;
+    private List<String> authors;
+    private String isbn13;
+    private String isbn10;
+    private String publisher;
+    private Integer pageCount;
+    private BookStatus status;
+    private Integer progress;
+    private Integer userRating;
+    private String userReview;
+    private boolean favorite;
+    private List<String> tags;
+    private LocalDate addedDate;
+    private LocalDate startDate;
+    private LocalDate finishDate;
+    private LocalDate lastReadDate;
+}
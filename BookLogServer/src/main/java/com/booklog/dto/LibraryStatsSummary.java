@@ -0,0 +1,17 @@
+package com.booklog.dto;
+
+import com.booklog.entity.LibraryBook.BookStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class LibraryStatsSummary {
+    private long total;
+    private Map<BookStatus, Long> statusCounts;
+    private long favorites;
+    // Most used tags first
+    private Map<String, Long> tagCounts;
+}
@@ -0,0 +1,13 @@
+package com.booklog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.YearMonth;
+
+@Getter
+@AllArgsConstructor
+public class MonthlyCount {
+    private YearMonth month;
+    private long count;
+}
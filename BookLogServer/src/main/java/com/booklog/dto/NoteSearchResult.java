@@ -0,0 +1,16 @@
+package com.booklog.dto;
+
+import com.booklog.search.NoteSearchIndex.EntryType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class NoteSearchResult {
+    private EntryType type;
+    private Long id;
+    private Long bookId;
+    private Integer page;
+    private double score;
+    private String snippet;
+}
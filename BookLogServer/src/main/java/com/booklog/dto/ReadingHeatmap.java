@@ -0,0 +1,19 @@
+package com.booklog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ReadingHeatmap {
+    private int year;
+    // One digit per day from January 1st: 0 for no reading, up to 4 for the highest level
+    private String levels;
+    // Minimum minutes of levels 1 to 4
+    private List<Integer> thresholds;
+    private long totalMinutes;
+    private int activeDays;
+    private int maxMinutes;
+}
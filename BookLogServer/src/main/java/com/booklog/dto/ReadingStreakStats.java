@@ -0,0 +1,17 @@
+package com.booklog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class ReadingStreakStats {
+    private int currentStreak;
+    private int longestStreak;
+    private LocalDate lastActiveDay;
+    // False while today's reading is still open and the streak only runs through yesterday
+    private boolean activeToday;
+    private String timeZone;
+}
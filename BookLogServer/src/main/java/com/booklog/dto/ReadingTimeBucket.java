@@ -0,0 +1,15 @@
+package com.booklog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class ReadingTimeBucket {
+    private LocalDate periodStart;
+    private long minutes;
+    private long pages;
+    private int sessions;
+}
@@ -0,0 +1,21 @@
+package com.booklog.dto;
+
+import com.booklog.entity.ReadingRollup.Period;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ReadingTimeStats {
+    private Period period;
+    private LocalDate from;
+    private LocalDate to;
+    private long totalMinutes;
+    private long totalPages;
+    private int totalSessions;
+    // Periods without reading are left out
+    private List<ReadingTimeBucket> buckets;
+}
@@ -0,0 +1,24 @@
+package com.booklog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class StatsDashboard {
+    // The user's current date, which the week, month and year are based on
+    private LocalDate date;
+    private LibraryStatsSummary library;
+    private ReadingTimeStats thisWeek;
+    private ReadingTimeStats thisMonth;
+    private ReadingTimeStats thisYear;
+    private ReadingStreakStats streak;
+    private List<BookReadingTotal> mostReadBooks;
+    private List<MonthlyCount> completedGoalsByMonth;
+    private List<HighlightSummary> recentHighlights;
+    // Sections that failed or timed out and are null
+    private List<String> unavailable;
+}
@@ -0,0 +1,57 @@
+package com.booklog.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * One client operation queued while offline. Which fields are used depends on the type.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class SyncMutation {
+
+    @jakarta.validation.constraints.NotBlank(message = "Idempotency key is required")
+    @jakarta.validation.constraints.Size(max = 128, message = "Idempotency key must be at most 128 characters")
+    private String idempotencyKey;
+
+    @jakarta.validation.constraints.NotNull(message = "Type is required")
+    private Type type;
+
+    @jakarta.validation.constraints.NotNull(message = "Book id is required")
+    private Long bookId;
+
+    // UPDATE_PROGRESS
+    @jakarta.validation.constraints.Min(value = 0, message = "Progress must be at least 0")
+    @jakarta.validation.constraints.Max(value = 100, message = "Progress must be at most 100")
+    private Integer progress;
+
+    // CREATE_SESSION, CREATE_NOTE and CREATE_HIGHLIGHT; defaults to the time of upload
+    private LocalDateTime date;
+
+    // CREATE_SESSION
+    private Integer startPage;
+    private Integer endPage;
+    private Integer duration;
+
+    // CREATE_NOTE and CREATE_HIGHLIGHT
+    private String content;
+    private Integer page;
+    private Set<String> tags;
+
+    // CREATE_NOTE
+    private String chapter;
+
+    // CREATE_HIGHLIGHT
+    private String location;
+    private String color;
+    private String note;
+
+    public enum Type {
+        UPDATE_PROGRESS, CREATE_SESSION, CREATE_NOTE, CREATE_HIGHLIGHT
+    }
+}
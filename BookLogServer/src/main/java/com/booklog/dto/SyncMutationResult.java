@@ -0,0 +1,19 @@
+package com.booklog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SyncMutationResult {
+    private String idempotencyKey;
+    private Outcome outcome;
+    // Id of the created or updated entity; null if the operation failed
+    private Long entityId;
+    // Null unless the operation failed
+    private String error;
+
+    public enum Outcome {
+        APPLIED, DUPLICATE, FAILED
+    }
+}
@@ -1,9 +1,16 @@
 package com.booklog.entity;
 
+import com.booklog.util.IsbnUtils;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -11,18 +18,22 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_isbn", columnList = "isbn", unique = true)
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@BatchSize(size = 100)
 public class Book extends BaseEntity {
 
     @NotBlank
@@ -33,6 +44,9 @@ public class Book extends BaseEntity {
     private String subtitle;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
+    @CollectionTable(name = "book_authors", joinColumns = @JoinColumn(name = "book_id"))
+    @Column(name = "authors")
     private List<String> authors = new ArrayList<>();
 
     @Column(name = "publisher")
@@ -48,6 +62,9 @@ public class Book extends BaseEntity {
     private Integer pageCount;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
+    @CollectionTable(name = "book_categories", joinColumns = @JoinColumn(name = "book_id"))
+    @Column(name = "categories")
     private List<String> categories = new ArrayList<>();
 
     @Column(name = "thumbnail")
@@ -62,6 +79,16 @@ public class Book extends BaseEntity {
     @Column(name = "isbn13")
     private String isbn13;
 
+    // Canonical ISBN-13 derived from isbn13/isbn10, used for all ISBN lookups
+    @Column(name = "isbn")
+    private String isbn;
+
+    // Set on books whose ISBN belonged to another book when the canonical column was backfilled;
+    // they keep no canonical ISBN until their ISBN is changed to a free one
+    @JsonIgnore
+    @Column(name = "isbn_duplicate")
+    private Boolean isbnDuplicate;
+
     @Column(name = "average_rating")
     private Double averageRating;
 
@@ -73,4 +100,10 @@ public class Book extends BaseEntity {
 
     @Column(name = "info_link")
     private String infoLink;
+
+    @PrePersist
+    @PreUpdate
+    public void updateCanonicalIsbn() {
+        this.isbn = Boolean.TRUE.equals(isbnDuplicate) ? null : IsbnUtils.canonical(isbn13, isbn10);
+    }
 }
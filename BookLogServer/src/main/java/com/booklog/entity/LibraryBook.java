@@ -3,9 +3,11 @@ package com.booklog.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -14,18 +16,23 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "library_books")
+@Table(name = "library_books", indexes = {
+        @Index(name = "idx_library_books_user_added", columnList = "user_id, added_date, id"),
+        @Index(name = "idx_library_books_book_rating", columnList = "book_id, user_rating")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners({VersionStampListener.class, SyncChangeListener.class})
 public class LibraryBook extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -62,18 +69,20 @@ public class LibraryBook extends BaseEntity {
     private LocalDate lastReadDate;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
     private Set<String> tags = new HashSet<>();
 
     @Column(name = "favorite")
     private boolean favorite;
 
-    @Column(name = "notes_count")
+    // Set on insert; afterwards only LibraryCounterService writes them, with JDBC deltas
+    @Column(name = "notes_count", updatable = false)
     private Integer notesCount;
 
-    @Column(name = "highlights_count")
+    @Column(name = "highlights_count", updatable = false)
     private Integer highlightsCount;
 
-    @Column(name = "reading_sessions_count")
+    @Column(name = "reading_sessions_count", updatable = false)
     private Integer readingSessionsCount;
 
     public enum BookStatus {
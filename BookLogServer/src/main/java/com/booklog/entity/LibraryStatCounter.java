@@ -0,0 +1,35 @@
+package com.booklog.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One materialized library statistic of a user, e.g. "status:READING" or "tag:sci-fi".
+ */
+@Entity
+@Table(name = "library_stat_counters", indexes = {
+        @Index(name = "idx_library_stat_counters_user_name", columnList = "user_id, name", unique = true)
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LibraryStatCounter extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "amount", nullable = false)
+    private long amount;
+}
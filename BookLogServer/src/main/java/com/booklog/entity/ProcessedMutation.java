@@ -0,0 +1,36 @@
+package com.booklog.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Idempotency key of an applied offline mutation, kept for a limited time so replays are skipped.
+ */
+@Entity
+@Table(name = "processed_mutations", indexes = {
+        @Index(name = "idx_processed_mutations_user_key", columnList = "user_id, idempotency_key", unique = true),
+        @Index(name = "idx_processed_mutations_created", columnList = "created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessedMutation extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 128)
+    private String idempotencyKey;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+}
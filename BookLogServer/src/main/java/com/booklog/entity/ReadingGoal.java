@@ -2,6 +2,7 @@ package com.booklog.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -24,6 +25,7 @@ import java.time.LocalTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners({VersionStampListener.class, SyncChangeListener.class})
 public class ReadingGoal extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -3,7 +3,9 @@ package com.booklog.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -12,18 +14,22 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "reading_highlights")
+@Table(name = "reading_highlights", indexes = {
+        @Index(name = "idx_reading_highlights_user_date", columnList = "user_id, date, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(SyncChangeListener.class)
 public class ReadingHighlight extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -53,6 +59,7 @@ public class ReadingHighlight extends BaseEntity {
     private String note;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
     private Set<String> tags = new HashSet<>();
 
     @Column(name = "is_favorite")
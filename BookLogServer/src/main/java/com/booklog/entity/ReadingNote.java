@@ -3,7 +3,9 @@ package com.booklog.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -12,6 +14,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -20,12 +23,15 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "reading_notes")
+@Table(name = "reading_notes", indexes = {
+        @Index(name = "idx_reading_notes_user_date", columnList = "user_id, date, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(SyncChangeListener.class)
 public class ReadingNote extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -49,9 +55,11 @@ public class ReadingNote extends BaseEntity {
     private LocalDateTime date;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
     private Set<String> tags = new HashSet<>();
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
     private List<String> images = new ArrayList<>();
 
     @Column(name = "is_favorite")
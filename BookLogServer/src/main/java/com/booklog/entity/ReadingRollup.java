@@ -0,0 +1,54 @@
+package com.booklog.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Reading totals of a user over one day, ISO week or month, starting at periodStart.
+ */
+@Entity
+@Table(name = "reading_rollups", indexes = {
+        @Index(name = "idx_reading_rollups_user_period_start", columnList = "user_id, period, period_start", unique = true)
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReadingRollup extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "period", nullable = false)
+    private Period period;
+
+    // The day itself, the Monday of the ISO week or the first of the month
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "minutes", nullable = false)
+    private long minutes;
+
+    @Column(name = "pages", nullable = false)
+    private long pages;
+
+    @Column(name = "sessions", nullable = false)
+    private int sessions;
+
+    public enum Period {
+        DAY, WEEK, MONTH
+    }
+}
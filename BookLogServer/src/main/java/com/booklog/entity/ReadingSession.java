@@ -2,9 +2,11 @@ package com.booklog.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -17,12 +19,15 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reading_sessions")
+@Table(name = "reading_sessions", indexes = {
+        @Index(name = "idx_reading_sessions_user_date", columnList = "user_id, date, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(SyncChangeListener.class)
 public class ReadingSession extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,41 @@
+package com.booklog.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * A user's reading streak state. The latest run of consecutive reading days spans
+ * runStart..lastActiveDay; whether it is still current depends on today in the user's time zone.
+ */
+@Entity
+@Table(name = "reading_streaks", indexes = {
+        @Index(name = "idx_reading_streaks_user", columnList = "user_id", unique = true)
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReadingStreak extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "run_start")
+    private LocalDate runStart;
+
+    @Column(name = "last_active_day")
+    private LocalDate lastActiveDay;
+
+    @Column(name = "longest_streak", nullable = false)
+    private int longestStreak;
+}
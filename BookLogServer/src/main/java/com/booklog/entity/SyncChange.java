@@ -0,0 +1,53 @@
+package com.booklog.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One entry of a user's change log. The id is the sync token: it only grows, and a client that
+ * has seen every entry up to an id only needs the entries after it. Deletions stay in the log as
+ * tombstones.
+ */
+@Entity
+@Table(name = "sync_changes", indexes = {
+        @Index(name = "idx_sync_changes_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_sync_changes_user_entity", columnList = "user_id, entity_type, entity_id, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncChange extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false)
+    private ChangeKind kind;
+
+    public enum EntityType {
+        LIBRARY_BOOK, READING_SESSION, READING_NOTE, READING_HIGHLIGHT, READING_GOAL
+    }
+
+    public enum ChangeKind {
+        UPSERT, DELETE
+    }
+}
@@ -0,0 +1,47 @@
+package com.booklog.entity;
+
+import com.booklog.entity.SyncChange.ChangeKind;
+import com.booklog.entity.SyncChange.EntityType;
+import com.booklog.repository.SyncChangeRepository;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Appends every write of a synced entity to its owner's change log, in the same transaction.
+ * Instantiated by Spring through Hibernate's bean container while the EntityManagerFactory is
+ * built, so it depends only on the JDBC repository and not on anything that needs JPA.
+ */
+public class SyncChangeListener {
+
+    private final SyncChangeRepository syncChangeRepository;
+
+    public SyncChangeListener(SyncChangeRepository syncChangeRepository) {
+        this.syncChangeRepository = syncChangeRepository;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        record(entity, ChangeKind.UPSERT);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        record(entity, ChangeKind.DELETE);
+    }
+
+    private void record(Object entity, ChangeKind kind) {
+        if (entity instanceof LibraryBook libraryBook) {
+            syncChangeRepository.append(libraryBook.getUser().getId(), EntityType.LIBRARY_BOOK, libraryBook.getId(), kind);
+        } else if (entity instanceof ReadingSession session) {
+            syncChangeRepository.append(session.getUser().getId(), EntityType.READING_SESSION, session.getId(), kind);
+        } else if (entity instanceof ReadingNote note) {
+            syncChangeRepository.append(note.getUser().getId(), EntityType.READING_NOTE, note.getId(), kind);
+        } else if (entity instanceof ReadingHighlight highlight) {
+            syncChangeRepository.append(highlight.getUser().getId(), EntityType.READING_HIGHLIGHT, highlight.getId(), kind);
+        } else if (entity instanceof ReadingGoal goal) {
+            syncChangeRepository.append(goal.getUser().getId(), EntityType.READING_GOAL, goal.getId(), kind);
+        }
+    }
+}
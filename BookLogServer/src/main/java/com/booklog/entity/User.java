@@ -2,6 +2,7 @@ package com.booklog.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Table;
@@ -22,6 +23,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(VersionStampListener.class)
 public class User extends BaseEntity {
 
     @NotBlank
@@ -45,7 +47,20 @@ public class User extends BaseEntity {
     @Column(name = "last_login_at")
     private LocalDateTime lastLoginAt;
 
+    // USER when not set; IMPORTER and ADMIN are granted directly in the database
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role")
+    private Role role;
+
+    // IANA zone id such as "Asia/Seoul"; the server's zone when not set
+    @Column(name = "time_zone")
+    private String timeZone;
+
     public enum AuthProvider {
         EMAIL, GOOGLE, APPLE, GUEST
     }
+
+    public enum Role {
+        USER, IMPORTER, ADMIN
+    }
 }
@@ -0,0 +1,37 @@
+package com.booklog.entity;
+
+import com.booklog.service.VersionStampService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Bumps the owning user's version stamp whenever a user-scoped entity is written.
+ * Instantiated by Spring through Hibernate's bean container.
+ */
+public class VersionStampListener {
+
+    private final VersionStampService versionStampService;
+
+    public VersionStampListener(VersionStampService versionStampService) {
+        this.versionStampService = versionStampService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        Long userId = null;
+        if (entity instanceof User user) {
+            userId = user.getId();
+        } else if (entity instanceof LibraryBook libraryBook) {
+            userId = libraryBook.getUser().getId();
+        } else if (entity instanceof ReadingGoal readingGoal) {
+            userId = readingGoal.getUser().getId();
+        }
+
+        if (userId != null) {
+            versionStampService.bumpAfterCommit(userId);
+        }
+    }
+}
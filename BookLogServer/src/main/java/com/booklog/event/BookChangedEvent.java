@@ -0,0 +1,13 @@
+package com.booklog.event;
+
+import com.booklog.entity.Book;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BookChangedEvent {
+
+    private final Book book;
+    private final ChangeType type;
+}
@@ -0,0 +1,17 @@
+package com.booklog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A user's rating of a book in their library was set, changed or removed.
+ * A null rating means "no rating".
+ */
+@Getter
+@AllArgsConstructor
+public class BookRatingChangedEvent {
+
+    private final Long bookId;
+    private final Integer previousRating;
+    private final Integer newRating;
+}
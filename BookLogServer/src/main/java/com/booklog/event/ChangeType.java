@@ -0,0 +1,5 @@
+package com.booklog.event;
+
+public enum ChangeType {
+    CREATED, UPDATED, DELETED
+}
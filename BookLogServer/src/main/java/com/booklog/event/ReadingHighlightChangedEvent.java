@@ -0,0 +1,13 @@
+package com.booklog.event;
+
+import com.booklog.entity.ReadingHighlight;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ReadingHighlightChangedEvent {
+
+    private final ReadingHighlight highlight;
+    private final ChangeType type;
+}
@@ -0,0 +1,13 @@
+package com.booklog.event;
+
+import com.booklog.entity.ReadingNote;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ReadingNoteChangedEvent {
+
+    private final ReadingNote note;
+    private final ChangeType type;
+}
@@ -0,0 +1,13 @@
+package com.booklog.event;
+
+import com.booklog.entity.ReadingSession;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ReadingSessionChangedEvent {
+
+    private final ReadingSession session;
+    private final ChangeType type;
+}
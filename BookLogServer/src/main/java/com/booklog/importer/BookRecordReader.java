@@ -0,0 +1,61 @@
+package com.booklog.importer;
+
+import com.booklog.entity.Book;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads catalog records one at a time from an import file.
+ */
+public interface BookRecordReader extends Closeable {
+
+    /**
+     * Returns the next record, or null at end of input.
+     * A malformed record throws IllegalArgumentException and the reader moves past it,
+     * so every call that does not return null consumes exactly one record.
+     */
+    Book next() throws IOException;
+
+    static String text(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    static List<String> list(String value) {
+        List<String> values = new ArrayList<>();
+        if (value != null) {
+            for (String part : value.split(";")) {
+                if (!part.isBlank()) {
+                    values.add(part.trim());
+                }
+            }
+        }
+        return values;
+    }
+
+    static Integer integer(String value) {
+        return text(value) == null ? null : Integer.valueOf(value.trim());
+    }
+
+    static Double decimal(String value) {
+        return text(value) == null ? null : Double.valueOf(value.trim());
+    }
+
+    // Publisher dumps often carry only the year or year-month
+    static LocalDate date(String value) {
+        String date = text(value);
+        if (date == null) {
+            return null;
+        }
+        if (date.length() == 4) {
+            return LocalDate.of(Integer.parseInt(date), 1, 1);
+        }
+        if (date.length() == 7) {
+            return LocalDate.parse(date + "-01");
+        }
+        return LocalDate.parse(date.length() > 10 ? date.substring(0, 10) : date);
+    }
+}
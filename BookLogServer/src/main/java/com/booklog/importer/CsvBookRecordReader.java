@@ -0,0 +1,78 @@
+package com.booklog.importer;
+
+import com.booklog.entity.Book;
+import com.booklog.util.CsvReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads books from CSV with a header row. Column names match the Book fields in camelCase or
+ * snake_case (e.g. publishedDate or published_date); authors and categories are separated by ';'.
+ */
+public class CsvBookRecordReader implements BookRecordReader {
+
+    private final CsvReader csvReader;
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    public CsvBookRecordReader(Reader reader) throws IOException {
+        this.csvReader = new CsvReader(reader);
+
+        List<String> header = csvReader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("title")) {
+            throw new IllegalArgumentException("CSV header must contain a title column");
+        }
+    }
+
+    @Override
+    public Book next() throws IOException {
+        List<String> fields = csvReader.next();
+        if (fields == null) {
+            return null;
+        }
+
+        try {
+            Book book = new Book();
+            book.setTitle(BookRecordReader.text(get(fields, "title")));
+            book.setSubtitle(BookRecordReader.text(get(fields, "subtitle")));
+            book.setAuthors(BookRecordReader.list(get(fields, "authors")));
+            book.setPublisher(BookRecordReader.text(get(fields, "publisher")));
+            book.setPublishedDate(BookRecordReader.date(get(fields, "publisheddate")));
+            book.setDescription(BookRecordReader.text(get(fields, "description")));
+            book.setPageCount(BookRecordReader.integer(get(fields, "pagecount")));
+            book.setCategories(BookRecordReader.list(get(fields, "categories")));
+            book.setThumbnail(BookRecordReader.text(get(fields, "thumbnail")));
+            book.setLanguage(BookRecordReader.text(get(fields, "language")));
+            book.setIsbn10(BookRecordReader.text(get(fields, "isbn10")));
+            book.setIsbn13(BookRecordReader.text(get(fields, "isbn13")));
+            book.setAverageRating(BookRecordReader.decimal(get(fields, "averagerating")));
+            book.setRatingsCount(BookRecordReader.integer(get(fields, "ratingscount")));
+            book.setPreviewLink(BookRecordReader.text(get(fields, "previewlink")));
+            book.setInfoLink(BookRecordReader.text(get(fields, "infolink")));
+            return book;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid record ending at line " + csvReader.getLineNumber()
+                    + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        csvReader.close();
+    }
+
+    private String get(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+}
@@ -0,0 +1,93 @@
+package com.booklog.importer;
+
+import com.booklog.entity.Book;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads books from JSON lines: one object per line with the Book field names.
+ * authors and categories may be arrays or ';'-separated strings.
+ */
+public class JsonLinesBookRecordReader implements BookRecordReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    public JsonLinesBookRecordReader(Reader reader, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(reader);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Book next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+        } while (line != null && line.isBlank());
+        if (line == null) {
+            return null;
+        }
+
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (!node.isObject()) {
+                throw new IllegalArgumentException("expected a JSON object");
+            }
+
+            Book book = new Book();
+            book.setTitle(text(node, "title"));
+            book.setSubtitle(text(node, "subtitle"));
+            book.setAuthors(list(node, "authors"));
+            book.setPublisher(text(node, "publisher"));
+            book.setPublishedDate(BookRecordReader.date(text(node, "publishedDate")));
+            book.setDescription(text(node, "description"));
+            book.setPageCount(BookRecordReader.integer(text(node, "pageCount")));
+            book.setCategories(list(node, "categories"));
+            book.setThumbnail(text(node, "thumbnail"));
+            book.setLanguage(text(node, "language"));
+            book.setIsbn10(text(node, "isbn10"));
+            book.setIsbn13(text(node, "isbn13"));
+            book.setAverageRating(BookRecordReader.decimal(text(node, "averageRating")));
+            book.setRatingsCount(BookRecordReader.integer(text(node, "ratingsCount")));
+            book.setPreviewLink(text(node, "previewLink"));
+            book.setInfoLink(text(node, "infoLink"));
+            return book;
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid record at line " + lineNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : BookRecordReader.text(value.asText());
+    }
+
+    private static List<String> list(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || !value.isArray()) {
+            return BookRecordReader.list(text(node, field));
+        }
+
+        List<String> values = new ArrayList<>();
+        for (JsonNode element : value) {
+            String text = BookRecordReader.text(element.asText());
+            if (text != null) {
+                values.add(text);
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,201 @@
+package com.booklog.repository;
+
+import com.booklog.entity.Book;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to books for bulk imports. Rows are written in JDBC batches instead of
+ * one IDENTITY insert per entity, and the authors/categories collections are written
+ * with one batch per table. Must be called inside a transaction.
+ */
+@Repository
+public class BookBulkRepository {
+
+    private static final String BOOK_COLUMNS = "title, subtitle, publisher, published_date, description, " +
+            "page_count, thumbnail, language, isbn10, isbn13, isbn, average_rating, ratings_count, " +
+            "preview_link, info_link";
+
+    private static final String INSERT_BOOK = "INSERT INTO books (" + BOOK_COLUMNS + ", created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_BOOK = "UPDATE books SET title = ?, subtitle = ?, publisher = ?, " +
+            "published_date = ?, description = ?, page_count = ?, thumbnail = ?, language = ?, isbn10 = ?, " +
+            "isbn13 = ?, isbn = ?, average_rating = ?, ratings_count = ?, preview_link = ?, info_link = ?, " +
+            "updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public BookBulkRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Loads the books with the given canonical ISBNs, including authors and categories, keyed by ISBN.
+     */
+    public Map<String, Book> findByIsbns(Collection<String> isbns) {
+        Map<String, Book> books = new HashMap<>();
+        if (isbns.isEmpty()) {
+            return books;
+        }
+
+        Map<Long, Book> booksById = new HashMap<>();
+        namedJdbcTemplate.query(
+                "SELECT id, " + BOOK_COLUMNS + " FROM books WHERE isbn IN (:isbns)",
+                new MapSqlParameterSource("isbns", isbns),
+                (ResultSet rs) -> {
+                    Book book = mapBook(rs);
+                    books.put(book.getIsbn(), book);
+                    booksById.put(book.getId(), book);
+                });
+        if (booksById.isEmpty()) {
+            return books;
+        }
+
+        MapSqlParameterSource ids = new MapSqlParameterSource("ids", booksById.keySet());
+        namedJdbcTemplate.query("SELECT book_id, authors FROM book_authors WHERE book_id IN (:ids)", ids,
+                (ResultSet rs) -> {
+                    booksById.get(rs.getLong(1)).getAuthors().add(rs.getString(2));
+                });
+        namedJdbcTemplate.query("SELECT book_id, categories FROM book_categories WHERE book_id IN (:ids)", ids,
+                (ResultSet rs) -> {
+                    booksById.get(rs.getLong(1)).getCategories().add(rs.getString(2));
+                });
+        return books;
+    }
+
+    /**
+     * Inserts new books and sets their generated ids. Every book must have a canonical ISBN.
+     */
+    public void insert(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(books.size());
+        for (Book book : books) {
+            Object[] row = new Object[17];
+            System.arraycopy(columnValues(book), 0, row, 0, 15);
+            row[15] = now;
+            row[16] = now;
+            rows.add(row);
+        }
+        jdbcTemplate.batchUpdate(INSERT_BOOK, rows);
+
+        // Generated keys are not returned from batches, so read them back through the unique ISBN index
+        Map<String, Book> booksByIsbn = new HashMap<>();
+        for (Book book : books) {
+            booksByIsbn.put(book.getIsbn(), book);
+        }
+        namedJdbcTemplate.query("SELECT id, isbn FROM books WHERE isbn IN (:isbns)",
+                new MapSqlParameterSource("isbns", booksByIsbn.keySet()),
+                (ResultSet rs) -> booksByIsbn.get(rs.getString(2)).setId(rs.getLong(1)));
+
+        insertCollections(books);
+    }
+
+    /**
+     * Overwrites existing books, replacing their authors and categories.
+     */
+    public void update(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(books.size());
+        List<Long> ids = new ArrayList<>(books.size());
+        for (Book book : books) {
+            Object[] row = new Object[17];
+            System.arraycopy(columnValues(book), 0, row, 0, 15);
+            row[15] = now;
+            row[16] = book.getId();
+            rows.add(row);
+            ids.add(book.getId());
+        }
+        jdbcTemplate.batchUpdate(UPDATE_BOOK, rows);
+
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        namedJdbcTemplate.update("DELETE FROM book_authors WHERE book_id IN (:ids)", params);
+        namedJdbcTemplate.update("DELETE FROM book_categories WHERE book_id IN (:ids)", params);
+        insertCollections(books);
+    }
+
+    private void insertCollections(List<Book> books) {
+        List<Object[]> authors = new ArrayList<>();
+        List<Object[]> categories = new ArrayList<>();
+        for (Book book : books) {
+            for (String author : book.getAuthors()) {
+                authors.add(new Object[]{book.getId(), author});
+            }
+            for (String category : book.getCategories()) {
+                categories.add(new Object[]{book.getId(), category});
+            }
+        }
+
+        if (!authors.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO book_authors (book_id, authors) VALUES (?, ?)", authors);
+        }
+        if (!categories.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO book_categories (book_id, categories) VALUES (?, ?)", categories);
+        }
+    }
+
+    private static Object[] columnValues(Book book) {
+        return new Object[]{
+                book.getTitle(),
+                book.getSubtitle(),
+                book.getPublisher(),
+                book.getPublishedDate() != null ? Date.valueOf(book.getPublishedDate()) : null,
+                book.getDescription(),
+                book.getPageCount(),
+                book.getThumbnail(),
+                book.getLanguage(),
+                book.getIsbn10(),
+                book.getIsbn13(),
+                book.getIsbn(),
+                book.getAverageRating(),
+                book.getRatingsCount(),
+                book.getPreviewLink(),
+                book.getInfoLink()
+        };
+    }
+
+    private static Book mapBook(ResultSet rs) throws SQLException {
+        Book book = new Book();
+        book.setId(rs.getLong("id"));
+        book.setTitle(rs.getString("title"));
+        book.setSubtitle(rs.getString("subtitle"));
+        book.setPublisher(rs.getString("publisher"));
+        Date publishedDate = rs.getDate("published_date");
+        book.setPublishedDate(publishedDate != null ? publishedDate.toLocalDate() : null);
+        book.setDescription(rs.getString("description"));
+        book.setPageCount(rs.getObject("page_count") != null ? rs.getInt("page_count") : null);
+        book.setThumbnail(rs.getString("thumbnail"));
+        book.setLanguage(rs.getString("language"));
+        book.setIsbn10(rs.getString("isbn10"));
+        book.setIsbn13(rs.getString("isbn13"));
+        book.setIsbn(rs.getString("isbn"));
+        book.setAverageRating(rs.getObject("average_rating") != null ? rs.getDouble("average_rating") : null);
+        book.setRatingsCount(rs.getObject("ratings_count") != null ? rs.getInt("ratings_count") : null);
+        book.setPreviewLink(rs.getString("preview_link"));
+        book.setInfoLink(rs.getString("info_link"));
+        return book;
+    }
+}
@@ -0,0 +1,17 @@
+package com.booklog.repository;
+
+import com.booklog.entity.BookImportJob;
+import com.booklog.entity.BookImportJob.ImportStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookImportJobRepository extends JpaRepository<BookImportJob, Long> {
+    
+    Optional<BookImportJob> findByIdAndUserId(Long id, Long userId);
+    
+    List<BookImportJob> findByStatus(ImportStatus status);
+}
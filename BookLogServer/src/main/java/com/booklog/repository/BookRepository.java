@@ -3,11 +3,13 @@ package com.booklog.repository;
 import com.booklog.entity.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +20,19 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     
     Optional<Book> findByIsbn10(String isbn10);
     
+    Optional<Book> findByIsbn(String isbn);
+    
+    boolean existsByIsbn(String isbn);
+    
+    List<Book> findByIsbnIn(Collection<String> isbns);
+    
+    @Query("SELECT b.isbn, b.id FROM Book b WHERE b.isbn IS NOT NULL")
+    List<Object[]> findAllIsbnIds();
+    
+    @Query("SELECT b FROM Book b WHERE b.isbn IS NULL AND (b.isbn13 IS NOT NULL OR b.isbn10 IS NOT NULL) " +
+           "AND (b.isbnDuplicate IS NULL OR b.isbnDuplicate = false)")
+    List<Book> findBooksMissingCanonicalIsbn();
+    
     @Query("SELECT b FROM Book b WHERE " +
            "LOWER(b.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(b.subtitle) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
@@ -39,4 +54,7 @@ public interface BookRepository extends JpaRepository<Book, Long> {
             Pageable pageable);
     
     List<Book> findTop10ByOrderByAverageRatingDesc();
+    
+    // Keyset pagination in id order
+    Slice<Book> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -0,0 +1,42 @@
+package com.booklog.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Set;
+
+/**
+ * Reserves blocks of ids for JDBC batch inserts into IDENTITY tables, which return no generated
+ * keys from batches. Must be called inside the transaction that inserts the rows.
+ */
+@Repository
+public class IdBlockRepository {
+
+    private static final Set<String> TABLES = Set.of("reading_sessions");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdBlockRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reserves count consecutive ids of the table and returns the first.
+     * <p>
+     * The first statement is a write, so the transaction holds SQLite's write lock before reading
+     * the table's highest id, and IDENTITY inserts cannot take an id of the block until it commits.
+     * Reserved ids must be inserted in the same transaction: a block that is rolled back is simply
+     * reserved again, and the block always starts above the highest existing id.
+     */
+    public long allocate(String table, int count) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("No id block for table " + table);
+        }
+
+        jdbcTemplate.update("INSERT OR IGNORE INTO id_blocks (name, next_id) VALUES (?, 1)", table);
+        jdbcTemplate.update("UPDATE id_blocks SET next_id = MAX(next_id, " +
+                "(SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + ")) + ? WHERE name = ?", count, table);
+        Long nextId = jdbcTemplate.queryForObject("SELECT next_id FROM id_blocks WHERE name = ?", Long.class, table);
+        return nextId - count;
+    }
+}
@@ -5,30 +5,44 @@ import com.booklog.entity.LibraryBook.BookStatus;
 import com.booklog.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LibraryBookRepository extends JpaRepository<LibraryBook, Long> {
     
+    @EntityGraph(attributePaths = "book")
     Page<LibraryBook> findByUser(User user, Pageable pageable);
     
+    @EntityGraph(attributePaths = "book")
     Page<LibraryBook> findByUserAndStatus(User user, BookStatus status, Pageable pageable);
     
     Optional<LibraryBook> findByUserAndBookId(User user, Long bookId);
     
+    @EntityGraph(attributePaths = "book")
+    List<LibraryBook> findByUserAndBookIdIn(User user, Collection<Long> bookIds);
+    
+    // Keyset pagination: newest first, seeking past the (addedDate, id) of the previous page
+    @EntityGraph(attributePaths = "book")
+    Slice<LibraryBook> findByUserOrderByAddedDateDescIdDesc(User user, Pageable pageable);
+    
+    @EntityGraph(attributePaths = "book")
     @Query("SELECT lb FROM LibraryBook lb WHERE lb.user = :user AND " +
-           "(:status IS NULL OR lb.status = :status) AND " +
-           "(:tag IS NULL OR :tag MEMBER OF lb.tags)")
-    Page<LibraryBook> findByUserAndStatusAndTag(
+           "(lb.addedDate < :addedDate OR (lb.addedDate = :addedDate AND lb.id < :id)) " +
+           "ORDER BY lb.addedDate DESC, lb.id DESC")
+    Slice<LibraryBook> findByUserAfterCursor(
             @Param("user") User user,
-            @Param("status") BookStatus status,
-            @Param("tag") String tag,
+            @Param("addedDate") LocalDate addedDate,
+            @Param("id") Long id,
             Pageable pageable);
     
     @Query("SELECT COUNT(lb) FROM LibraryBook lb WHERE lb.user = :user AND lb.status = :status")
@@ -37,7 +51,39 @@ public interface LibraryBookRepository extends JpaRepository<LibraryBook, Long>
     @Query("SELECT lb.status, COUNT(lb) FROM LibraryBook lb WHERE lb.user = :user GROUP BY lb.status")
     List<Object[]> countByUserGroupByStatus(@Param("user") User user);
     
-    List<LibraryBook> findTop5ByUserAndStatusOrderByLastReadDateDesc(User user, BookStatus status);
+    @Query("SELECT lb.status, COUNT(lb) FROM LibraryBook lb WHERE lb.user.id = :userId GROUP BY lb.status")
+    List<Object[]> countByUserIdGroupByStatus(@Param("userId") Long userId);
+    
+    long countByUserIdAndFavoriteTrue(Long userId);
+    
+    @Query("SELECT tag, COUNT(lb) FROM LibraryBook lb JOIN lb.tags tag WHERE lb.user.id = :userId GROUP BY tag")
+    List<Object[]> countTagsByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT lb.id, lb.status FROM LibraryBook lb WHERE lb.user.id = :userId")
+    List<Object[]> findIdAndStatusByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT lb.id, tag FROM LibraryBook lb JOIN lb.tags tag WHERE lb.user.id = :userId")
+    List<Object[]> findIdAndTagByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT lb.id, lb.book.id, lb.lastReadDate FROM LibraryBook lb " +
+           "WHERE lb.user.id = :userId AND lb.status = :status ORDER BY lb.lastReadDate DESC, lb.id DESC")
+    List<Object[]> findRecentlyReadByUserId(@Param("userId") Long userId, @Param("status") BookStatus status,
+                                            Pageable pageable);
     
     boolean existsByUserAndBookId(User user, Long bookId);
+    
+    boolean existsByUserIdAndBookId(Long userId, Long bookId);
+    
+    @Query("SELECT lb.book.id, SUM(lb.userRating), COUNT(lb.userRating) FROM LibraryBook lb " +
+           "WHERE lb.userRating IS NOT NULL GROUP BY lb.book.id")
+    List<Object[]> sumUserRatingsByBook();
+    
+    @Query("SELECT SUM(lb.userRating), COUNT(lb.userRating) FROM LibraryBook lb WHERE lb.book.id = :bookId")
+    List<Object[]> sumUserRatingsOfBook(@Param("bookId") Long bookId);
+    
+    @Query("SELECT lb.book.id FROM LibraryBook lb WHERE lb.user = :user AND lb.book.id IN :bookIds")
+    List<Long> findBookIdsInLibrary(@Param("user") User user, @Param("bookIds") Collection<Long> bookIds);
+    
+    @EntityGraph(attributePaths = "book")
+    List<LibraryBook> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
 }
@@ -0,0 +1,82 @@
+package com.booklog.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to the denormalized notes/highlights/reading sessions counters on library_books.
+ */
+@Repository
+public class LibraryCounterRepository {
+
+    private static final String APPLY_DELTA = "UPDATE library_books SET " +
+            "notes_count = COALESCE(notes_count, 0) + ?, " +
+            "highlights_count = COALESCE(highlights_count, 0) + ?, " +
+            "reading_sessions_count = COALESCE(reading_sessions_count, 0) + ? " +
+            "WHERE user_id = ? AND book_id = ?";
+
+    private static final String RECOUNT_ALL = "UPDATE library_books SET " +
+            "notes_count = (SELECT COUNT(*) FROM reading_notes n " +
+            "WHERE n.user_id = library_books.user_id AND n.book_id = library_books.book_id), " +
+            "highlights_count = (SELECT COUNT(*) FROM reading_highlights h " +
+            "WHERE h.user_id = library_books.user_id AND h.book_id = library_books.book_id), " +
+            "reading_sessions_count = (SELECT COUNT(*) FROM reading_sessions s " +
+            "WHERE s.user_id = library_books.user_id AND s.book_id = library_books.book_id)";
+
+    private static final String COUNT_BY_BOOK = "SELECT b.id, " +
+            "(SELECT COUNT(*) FROM reading_notes n WHERE n.user_id = :userId AND n.book_id = b.id), " +
+            "(SELECT COUNT(*) FROM reading_highlights h WHERE h.user_id = :userId AND h.book_id = b.id), " +
+            "(SELECT COUNT(*) FROM reading_sessions s WHERE s.user_id = :userId AND s.book_id = b.id) " +
+            "FROM books b WHERE b.id IN (:bookIds)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public LibraryCounterRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Adds counter deltas in one JDBC batch. Each row is
+     * {notesDelta, highlightsDelta, sessionsDelta, userId, bookId}.
+     */
+    public void applyDeltas(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(APPLY_DELTA, rows);
+        }
+    }
+
+    /**
+     * Recomputes every library entry's counters from the source tables.
+     */
+    public int recountAll() {
+        return jdbcTemplate.update(RECOUNT_ALL);
+    }
+
+    /**
+     * Returns {notes, highlights, sessions} of the user for each of the given books.
+     */
+    public Map<Long, int[]> countByBook(Long userId, Collection<Long> bookIds) {
+        Map<Long, int[]> counts = new HashMap<>();
+        if (bookIds.isEmpty()) {
+            return counts;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("bookIds", bookIds);
+        namedJdbcTemplate.query(COUNT_BY_BOOK, params, (ResultSet rs) -> {
+            counts.put(rs.getLong(1), new int[]{rs.getInt(2), rs.getInt(3), rs.getInt(4)});
+        });
+        return counts;
+    }
+}
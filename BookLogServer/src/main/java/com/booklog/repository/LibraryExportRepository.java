@@ -0,0 +1,102 @@
+package com.booklog.repository;
+
+import com.booklog.dto.LibraryExportRow;
+import com.booklog.entity.LibraryBook.BookStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Chunked JDBC read of a user's library for exports.
+ */
+@Repository
+public class LibraryExportRepository {
+
+    // Collections are folded into one column per row, separated by the ASCII unit separator
+    private static final String SEPARATOR = "\u001F";
+
+    private static final String SELECT_LIBRARY = "SELECT lb.id, lb.book_id, b.title, b.isbn13, b.isbn10, b.publisher, " +
+            "b.page_count, lb.status, lb.progress, lb.user_rating, lb.user_review, lb.favorite, lb.added_date, " +
+            "lb.start_date, lb.finish_date, lb.last_read_date, " +
+            "(SELECT group_concat(ba.authors, char(31)) FROM book_authors ba WHERE ba.book_id = lb.book_id) AS authors, " +
+            "(SELECT group_concat(t.tags, char(31)) FROM library_book_tags t WHERE t.library_book_id = lb.id) AS tags " +
+            "FROM library_books lb JOIN books b ON b.id = lb.book_id " +
+            "WHERE lb.user_id = ? ";
+
+    private static final String AFTER = "AND (lb.added_date < ? OR (lb.added_date = ? AND lb.id < ?)) ";
+
+    private static final String ORDER_AND_LIMIT = "ORDER BY lb.added_date DESC, lb.id DESC LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LibraryExportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Passes up to limit of the user's entries to the consumer, most recently added first,
+     * starting after the given position or from the newest entry if it is null.
+     * Returns the position of the last entry passed, or null if there was none.
+     */
+    public Position forEachChunk(Long userId, Position after, int limit, Consumer<LibraryExportRow> consumer) {
+        List<Object> args = new ArrayList<>(List.of(userId));
+        String sql = SELECT_LIBRARY;
+        if (after != null) {
+            sql += AFTER;
+            args.addAll(List.of(after.addedDate(), after.addedDate(), after.id()));
+        }
+        args.add(limit);
+
+        Position[] last = {null};
+        jdbcTemplate.query(sql + ORDER_AND_LIMIT, (RowCallbackHandler) rs -> {
+            consumer.accept(mapRow(rs));
+            // The stored value is passed back as is, so the seek compares like with like
+            last[0] = new Position(rs.getObject("added_date"), rs.getLong("id"));
+        }, args.toArray());
+        return last[0];
+    }
+
+    /**
+     * Where a chunked read stopped: the raw added_date and id of the last entry read.
+     */
+    public record Position(Object addedDate, long id) {
+    }
+
+    private static LibraryExportRow mapRow(ResultSet rs) throws SQLException {
+        return new LibraryExportRow(
+                rs.getLong("book_id"),
+                rs.getString("title"),
+                split(rs.getString("authors")),
+                rs.getString("isbn13"),
+                rs.getString("isbn10"),
+                rs.getString("publisher"),
+                rs.getObject("page_count") != null ? rs.getInt("page_count") : null,
+                BookStatus.valueOf(rs.getString("status")),
+                rs.getInt("progress"),
+                rs.getObject("user_rating") != null ? rs.getInt("user_rating") : null,
+                rs.getString("user_review"),
+                rs.getBoolean("favorite"),
+                split(rs.getString("tags")),
+                toLocalDate(rs.getDate("added_date")),
+                toLocalDate(rs.getDate("start_date")),
+                toLocalDate(rs.getDate("finish_date")),
+                toLocalDate(rs.getDate("last_read_date")));
+    }
+
+    private static List<String> split(String value) {
+        return value != null ? Arrays.asList(value.split(SEPARATOR)) : List.of();
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.booklog.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC access to library_books progress for the write-behind buffer.
+ */
+@Repository
+public class LibraryProgressRepository {
+
+    private static final String UPDATE_PROGRESS = "UPDATE library_books SET progress = ?, last_read_date = ?, " +
+            "updated_at = ? WHERE user_id = ? AND book_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LibraryProgressRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Writes progress in one JDBC batch. Each row is {progress, lastReadDate, userId, bookId}.
+     */
+    public void updateProgress(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_PROGRESS, rows.stream()
+                .map(row -> new Object[]{row[0], Date.valueOf((LocalDate) row[1]), now, row[2], row[3]})
+                .toList());
+    }
+}
@@ -0,0 +1,25 @@
+package com.booklog.repository;
+
+import com.booklog.entity.LibraryStatCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LibraryStatCounterRepository extends JpaRepository<LibraryStatCounter, Long> {
+    
+    List<LibraryStatCounter> findByUserId(Long userId);
+    
+    @Modifying
+    @Query("UPDATE LibraryStatCounter c SET c.amount = c.amount + :delta " +
+           "WHERE c.userId = :userId AND c.name = :name")
+    int increment(@Param("userId") Long userId, @Param("name") String name, @Param("delta") long delta);
+    
+    @Modifying
+    @Query("DELETE FROM LibraryStatCounter c WHERE c.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
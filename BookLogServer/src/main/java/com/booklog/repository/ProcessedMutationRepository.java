@@ -0,0 +1,71 @@
+package com.booklog.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to the idempotency keys of applied offline mutations.
+ */
+@Repository
+public class ProcessedMutationRepository {
+
+    private static final String INSERT = "INSERT INTO processed_mutations " +
+            "(user_id, idempotency_key, entity_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public ProcessedMutationRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Returns the entity id recorded for each of the given keys that was already applied.
+     * Keys of mutations without an entity map to null.
+     */
+    public Map<String, Long> findByKeys(Long userId, Collection<String> keys) {
+        Map<String, Long> found = new HashMap<>();
+        if (keys.isEmpty()) {
+            return found;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("keys", keys);
+        namedJdbcTemplate.query("SELECT idempotency_key, entity_id FROM processed_mutations " +
+                "WHERE user_id = :userId AND idempotency_key IN (:keys)", params, (ResultSet rs) -> {
+            long entityId = rs.getLong(2);
+            found.put(rs.getString(1), rs.wasNull() ? null : entityId);
+        });
+        return found;
+    }
+
+    /**
+     * Records applied keys in one JDBC batch. Each row is {idempotencyKey, entityId}.
+     */
+    public void insert(Long userId, List<Object[]> keyRows) {
+        if (keyRows.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT, keyRows.stream()
+                .map(row -> new Object[]{userId, row[0], row[1], now, now})
+                .toList());
+    }
+
+    public int deleteOlderThan(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM processed_mutations WHERE created_at < ?", Timestamp.valueOf(cutoff));
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,4 +47,6 @@ public interface ReadingGoalRepository extends JpaRepository<ReadingGoal, Long>
            "GROUP BY YEAR(rg.endDate), MONTH(rg.endDate) " +
            "ORDER BY YEAR(rg.endDate), MONTH(rg.endDate)")
     List<Object[]> countCompletedGoalsByMonth(@Param("user") User user);
+    
+    List<ReadingGoal> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
 }
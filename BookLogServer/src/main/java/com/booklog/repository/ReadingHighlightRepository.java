@@ -5,35 +5,67 @@ import com.booklog.entity.ReadingHighlight;
 import com.booklog.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReadingHighlightRepository extends JpaRepository<ReadingHighlight, Long> {
     
+    @EntityGraph(attributePaths = "book")
     Page<ReadingHighlight> findByUser(User user, Pageable pageable);
     
+    // Keyset pagination: newest first, seeking past the (date, id) of the previous page
+    @EntityGraph(attributePaths = "book")
+    Slice<ReadingHighlight> findByUserOrderByDateDescIdDesc(User user, Pageable pageable);
+    
+    @EntityGraph(attributePaths = "book")
+    @Query("SELECT rh FROM ReadingHighlight rh WHERE rh.user = :user AND " +
+           "(rh.date < :date OR (rh.date = :date AND rh.id < :id)) " +
+           "ORDER BY rh.date DESC, rh.id DESC")
+    Slice<ReadingHighlight> findByUserAfterCursor(
+            @Param("user") User user,
+            @Param("date") LocalDateTime date,
+            @Param("id") Long id,
+            Pageable pageable);
+    
+    Optional<ReadingHighlight> findByIdAndUserId(Long id, Long userId);
+    
     Page<ReadingHighlight> findByUserAndBook(User user, Book book, Pageable pageable);
     
+    @EntityGraph(attributePaths = "book")
     Page<ReadingHighlight> findByUserAndIsFavoriteTrue(User user, Pageable pageable);
     
+    @EntityGraph(attributePaths = "book")
     @Query("SELECT rh FROM ReadingHighlight rh WHERE rh.user = :user AND " +
            "(:tag IS NULL OR :tag MEMBER OF rh.tags)")
     Page<ReadingHighlight> findByUserAndTag(@Param("user") User user, @Param("tag") String tag, Pageable pageable);
     
+    @EntityGraph(attributePaths = "book")
     @Query("SELECT rh FROM ReadingHighlight rh WHERE rh.user = :user AND " +
            "(LOWER(rh.content) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(rh.note) LIKE LOWER(CONCAT('%', :query, '%')))")
     Page<ReadingHighlight> searchHighlights(@Param("user") User user, @Param("query") String query, Pageable pageable);
     
+    @EntityGraph(attributePaths = "book")
     @Query("SELECT rh FROM ReadingHighlight rh WHERE rh.user = :user " +
            "ORDER BY rh.date DESC")
     List<ReadingHighlight> findRecentHighlights(@Param("user") User user, Pageable pageable);
     
     @Query("SELECT COUNT(rh) FROM ReadingHighlight rh WHERE rh.user = :user AND rh.book = :book")
     long countByUserAndBook(@Param("user") User user, @Param("book") Book book);
+    
+    @Query("SELECT rh.id, rh.content, rh.note FROM ReadingHighlight rh WHERE rh.user.id = :userId")
+    List<Object[]> findSearchableContentByUserId(@Param("userId") Long userId);
+    
+    @EntityGraph(attributePaths = "book")
+    List<ReadingHighlight> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
 }
@@ -5,30 +5,56 @@ import com.booklog.entity.ReadingNote;
 import com.booklog.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReadingNoteRepository extends JpaRepository<ReadingNote, Long> {
     
+    @EntityGraph(attributePaths = "book")
     Page<ReadingNote> findByUser(User user, Pageable pageable);
     
+    // Keyset pagination: newest first, seeking past the (date, id) of the previous page
+    @EntityGraph(attributePaths = "book")
+    Slice<ReadingNote> findByUserOrderByDateDescIdDesc(User user, Pageable pageable);
+    
+    @EntityGraph(attributePaths = "book")
+    @Query("SELECT rn FROM ReadingNote rn WHERE rn.user = :user AND " +
+           "(rn.date < :date OR (rn.date = :date AND rn.id < :id)) " +
+           "ORDER BY rn.date DESC, rn.id DESC")
+    Slice<ReadingNote> findByUserAfterCursor(
+            @Param("user") User user,
+            @Param("date") LocalDateTime date,
+            @Param("id") Long id,
+            Pageable pageable);
+    
+    Optional<ReadingNote> findByIdAndUserId(Long id, Long userId);
+    
     Page<ReadingNote> findByUserAndBook(User user, Book book, Pageable pageable);
     
+    @EntityGraph(attributePaths = "book")
     Page<ReadingNote> findByUserAndIsFavoriteTrue(User user, Pageable pageable);
     
+    @EntityGraph(attributePaths = "book")
     @Query("SELECT rn FROM ReadingNote rn WHERE rn.user = :user AND " +
            "(:tag IS NULL OR :tag MEMBER OF rn.tags)")
     Page<ReadingNote> findByUserAndTag(@Param("user") User user, @Param("tag") String tag, Pageable pageable);
     
+    @EntityGraph(attributePaths = "book")
     @Query("SELECT rn FROM ReadingNote rn WHERE rn.user = :user AND " +
            "(LOWER(rn.content) LIKE LOWER(CONCAT('%', :query, '%')))")
     Page<ReadingNote> searchNotes(@Param("user") User user, @Param("query") String query, Pageable pageable);
     
+    @EntityGraph(attributePaths = "book")
     @Query("SELECT rn FROM ReadingNote rn WHERE rn.user = :user " +
            "ORDER BY rn.date DESC")
     List<ReadingNote> findRecentNotes(@Param("user") User user, Pageable pageable);
@@ -38,4 +64,10 @@ public interface ReadingNoteRepository extends JpaRepository<ReadingNote, Long>
     
     @Query("SELECT DISTINCT tag FROM ReadingNote rn JOIN rn.tags tag WHERE rn.user = :user")
     List<String> findAllTagsByUser(@Param("user") User user);
+    
+    @Query("SELECT rn.id, rn.content FROM ReadingNote rn WHERE rn.user.id = :userId")
+    List<Object[]> findSearchableContentByUserId(@Param("userId") Long userId);
+    
+    @EntityGraph(attributePaths = "book")
+    List<ReadingNote> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
 }
@@ -0,0 +1,150 @@
+package com.booklog.repository;
+
+import com.booklog.dto.ReadingTimeBucket;
+import com.booklog.entity.ReadingRollup.Period;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JDBC access to reading_rollups. Deltas are applied with upserts, so a session write costs
+ * one statement per period whether or not the period already has a row.
+ */
+@Repository
+public class ReadingRollupRepository {
+
+    private static final String APPLY_DELTA = "INSERT INTO reading_rollups " +
+            "(user_id, period, period_start, minutes, pages, sessions, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, period, period_start) DO UPDATE SET " +
+            "minutes = minutes + excluded.minutes, pages = pages + excluded.pages, " +
+            "sessions = sessions + excluded.sessions, updated_at = excluded.updated_at";
+
+    private static final String INSERT = "INSERT INTO reading_rollups " +
+            "(user_id, period, period_start, minutes, pages, sessions, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String FIND_RANGE = "SELECT period_start, minutes, pages, sessions FROM reading_rollups " +
+            "WHERE user_id = ? AND period = ? AND period_start >= ? AND period_start <= ? ORDER BY period_start";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public ReadingRollupRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Adds deltas of one user in one JDBC batch. Each row is
+     * {userId, period, periodStart, minutes, pages, sessions}. Rows left without sessions are removed.
+     */
+    public void applyDeltas(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(APPLY_DELTA, rows.stream().map(row -> toParams(row, now)).toList());
+        if (rows.stream().anyMatch(row -> ((Number) row[5]).intValue() < 0)) {
+            jdbcTemplate.update("DELETE FROM reading_rollups WHERE user_id = ? AND sessions <= 0", rows.get(0)[0]);
+        }
+    }
+
+    public void deleteForUsers(Collection<Long> userIds) {
+        namedJdbcTemplate.update("DELETE FROM reading_rollups WHERE user_id IN (:userIds)",
+                new MapSqlParameterSource("userIds", userIds));
+    }
+
+    /**
+     * Inserts rows in the same format as applyDeltas, in one JDBC batch.
+     */
+    public void insert(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT, rows.stream().map(row -> toParams(row, now)).toList());
+    }
+
+    public List<ReadingTimeBucket> findRange(Long userId, Period period, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(FIND_RANGE, (rs, rowNum) -> new ReadingTimeBucket(
+                rs.getDate("period_start").toLocalDate(),
+                rs.getLong("minutes"),
+                rs.getLong("pages"),
+                rs.getInt("sessions")),
+                userId, period.name(), Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Returns the days between from and to, inclusive, on which the user read, ascending.
+     */
+    public List<LocalDate> findActiveDays(Long userId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("SELECT period_start FROM reading_rollups WHERE user_id = ? AND period = 'DAY' " +
+                        "AND period_start >= ? AND period_start <= ? ORDER BY period_start",
+                (rs, rowNum) -> rs.getDate(1).toLocalDate(),
+                userId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public List<LocalDate> findAllActiveDays(Long userId) {
+        return jdbcTemplate.query("SELECT period_start FROM reading_rollups WHERE user_id = ? AND period = 'DAY' " +
+                        "ORDER BY period_start",
+                (rs, rowNum) -> rs.getDate(1).toLocalDate(),
+                userId);
+    }
+
+    /**
+     * Returns the last day before the given one on which the user read, or null.
+     */
+    public LocalDate findLastActiveDayBefore(Long userId, LocalDate before) {
+        List<LocalDate> days = jdbcTemplate.query("SELECT period_start FROM reading_rollups WHERE user_id = ? " +
+                        "AND period = 'DAY' AND period_start < ? ORDER BY period_start DESC LIMIT 1",
+                (rs, rowNum) -> rs.getDate(1).toLocalDate(),
+                userId, Date.valueOf(before));
+        return days.isEmpty() ? null : days.get(0);
+    }
+
+    /**
+     * Returns the ids of users with sessions or rollups, ascending.
+     */
+    public List<Long> findUserIds() {
+        return jdbcTemplate.queryForList("SELECT user_id FROM reading_sessions UNION " +
+                "SELECT user_id FROM reading_rollups ORDER BY user_id", Long.class);
+    }
+
+    /**
+     * Passes the sessions of the given users to the consumer as
+     * {userId, date, startPage, endPage, duration} rows.
+     */
+    public void forEachSession(Collection<Long> userIds, Consumer<Object[]> consumer) {
+        namedJdbcTemplate.query("SELECT user_id, date, start_page, end_page, duration FROM reading_sessions " +
+                        "WHERE user_id IN (:userIds)",
+                new MapSqlParameterSource("userIds", userIds),
+                (RowCallbackHandler) rs -> consumer.accept(new Object[]{
+                        rs.getLong(1),
+                        rs.getTimestamp(2).toLocalDateTime(),
+                        rs.getInt(3),
+                        rs.getInt(4),
+                        rs.getInt(5)}));
+    }
+
+    public boolean isEmpty() {
+        return jdbcTemplate.queryForList("SELECT 1 FROM reading_rollups LIMIT 1").isEmpty();
+    }
+
+    private static Object[] toParams(Object[] row, Timestamp now) {
+        return new Object[]{row[0], ((Period) row[1]).name(), Date.valueOf((LocalDate) row[2]),
+                row[3], row[4], row[5], now, now};
+    }
+}
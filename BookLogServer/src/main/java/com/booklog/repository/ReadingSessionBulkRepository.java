@@ -0,0 +1,68 @@
+package com.booklog.repository;
+
+import com.booklog.entity.ReadingSession;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch inserts of reading sessions. Ids come from a block reserved in the same transaction,
+ * so the whole batch is one JDBC batch instead of one IDENTITY insert per session.
+ * Must be called inside a transaction.
+ */
+@Repository
+public class ReadingSessionBulkRepository {
+
+    private static final String TABLE = "reading_sessions";
+
+    private static final String INSERT_SESSION = "INSERT INTO reading_sessions (id, user_id, book_id, date, " +
+            "start_page, end_page, duration, notes, emotion, rating, location, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdBlockRepository idBlockRepository;
+
+    public ReadingSessionBulkRepository(JdbcTemplate jdbcTemplate, IdBlockRepository idBlockRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idBlockRepository = idBlockRepository;
+    }
+
+    /**
+     * Inserts the sessions and sets their ids and timestamps. User and book must be set.
+     */
+    public void insert(List<ReadingSession> sessions) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+
+        long nextId = idBlockRepository.allocate(TABLE, sessions.size());
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTimestamp = Timestamp.valueOf(now);
+        List<Object[]> rows = new ArrayList<>(sessions.size());
+        for (ReadingSession session : sessions) {
+            session.setId(nextId++);
+            session.setCreatedAt(now);
+            session.setUpdatedAt(now);
+            rows.add(new Object[]{
+                    session.getId(),
+                    session.getUser().getId(),
+                    session.getBook().getId(),
+                    Timestamp.valueOf(session.getDate()),
+                    session.getStartPage(),
+                    session.getEndPage(),
+                    session.getDuration(),
+                    session.getNotes(),
+                    session.getEmotion() != null ? session.getEmotion().name() : null,
+                    session.getRating(),
+                    session.getLocation(),
+                    nowTimestamp,
+                    nowTimestamp
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SESSION, rows);
+    }
+}
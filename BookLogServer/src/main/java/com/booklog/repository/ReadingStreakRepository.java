@@ -0,0 +1,21 @@
+package com.booklog.repository;
+
+import com.booklog.entity.ReadingStreak;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface ReadingStreakRepository extends JpaRepository<ReadingStreak, Long> {
+    
+    Optional<ReadingStreak> findByUserId(Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM ReadingStreak s WHERE s.userId IN :userIds")
+    void deleteByUserIdIn(@Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,132 @@
+package com.booklog.repository;
+
+import com.booklog.entity.SyncChange;
+import com.booklog.entity.SyncChange.ChangeKind;
+import com.booklog.entity.SyncChange.EntityType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to the sync_changes log. Entries are appended from inside Hibernate flushes,
+ * where the EntityManager must not be used, so everything here goes through plain JDBC.
+ */
+@Repository
+public class SyncChangeRepository {
+
+    private static final String APPEND = "INSERT INTO sync_changes " +
+            "(user_id, entity_type, entity_id, kind, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String APPEND_LIBRARY_BOOK = "INSERT INTO sync_changes " +
+            "(user_id, entity_type, entity_id, kind, created_at, updated_at) " +
+            "SELECT user_id, 'LIBRARY_BOOK', id, 'UPSERT', ?, ? FROM library_books WHERE user_id = ? AND book_id = ?";
+
+    // Only the latest entry of each entity counts; older ones are skipped here and removed by compact()
+    private static final String FIND_LATEST = "SELECT c.id, c.entity_type, c.entity_id, c.kind FROM sync_changes c " +
+            "WHERE c.user_id = ? AND c.id > ? AND c.id <= ? AND NOT EXISTS (SELECT 1 FROM sync_changes n " +
+            "WHERE n.user_id = c.user_id AND n.entity_type = c.entity_type AND n.entity_id = c.entity_id " +
+            "AND n.id > c.id AND n.id <= ?) " +
+            "ORDER BY c.id LIMIT ?";
+
+    private static final String COMPACT = "DELETE FROM sync_changes WHERE EXISTS (SELECT 1 FROM sync_changes n " +
+            "WHERE n.user_id = sync_changes.user_id AND n.entity_type = sync_changes.entity_type " +
+            "AND n.entity_id = sync_changes.entity_id AND n.id > sync_changes.id)";
+
+    private static final Map<EntityType, String> SOURCE_TABLES = Map.of(
+            EntityType.LIBRARY_BOOK, "library_books",
+            EntityType.READING_SESSION, "reading_sessions",
+            EntityType.READING_NOTE, "reading_notes",
+            EntityType.READING_HIGHLIGHT, "reading_highlights",
+            EntityType.READING_GOAL, "reading_goals");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SyncChangeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void append(Long userId, EntityType entityType, Long entityId, ChangeKind kind) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(APPEND, userId, entityType.name(), entityId, kind.name(), now, now);
+    }
+
+    /**
+     * Appends the same kind of entry for each of the entities, in one JDBC batch.
+     */
+    public void appendAll(Long userId, EntityType entityType, List<Long> entityIds, ChangeKind kind) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(APPEND, entityIds.stream()
+                .map(entityId -> new Object[]{userId, entityType.name(), entityId, kind.name(), now, now})
+                .toList());
+    }
+
+    /**
+     * Appends an upsert for the library entry of each {userId, bookId} row, in one JDBC batch.
+     */
+    public void appendLibraryBooks(List<Object[]> userBookRows) {
+        if (userBookRows.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(APPEND_LIBRARY_BOOK, userBookRows.stream()
+                .map(row -> new Object[]{now, now, row[0], row[1]})
+                .toList());
+    }
+
+    /**
+     * Returns up to limit of the user's latest entries per entity with ids in (after, upTo], oldest first.
+     */
+    public List<SyncChange> findLatest(Long userId, long after, long upTo, int limit) {
+        return jdbcTemplate.query(FIND_LATEST, (rs, rowNum) -> {
+            SyncChange change = new SyncChange();
+            change.setId(rs.getLong(1));
+            change.setUserId(userId);
+            change.setEntityType(EntityType.valueOf(rs.getString(2)));
+            change.setEntityId(rs.getLong(3));
+            change.setKind(ChangeKind.valueOf(rs.getString(4)));
+            return change;
+        }, userId, after, upTo, upTo, limit);
+    }
+
+    public long findMaxId(Long userId) {
+        Long maxId = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM sync_changes WHERE user_id = ?", Long.class, userId);
+        return maxId != null ? maxId : 0L;
+    }
+
+    /**
+     * Removes entries superseded by a later entry for the same entity.
+     */
+    public int compact() {
+        return jdbcTemplate.update(COMPACT);
+    }
+
+    public boolean isEmpty() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM sync_changes LIMIT 1)",
+                Integer.class) == 0;
+    }
+
+    /**
+     * Appends an upsert for every existing row of the synced tables.
+     */
+    public int seed() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int seeded = 0;
+        for (Map.Entry<EntityType, String> source : SOURCE_TABLES.entrySet()) {
+            seeded += jdbcTemplate.update("INSERT INTO sync_changes " +
+                    "(user_id, entity_type, entity_id, kind, created_at, updated_at) " +
+                    "SELECT user_id, ?, id, 'UPSERT', ?, ? FROM " + source.getValue() + " ORDER BY id",
+                    source.getKey().name(), now, now);
+        }
+        return seeded;
+    }
+}
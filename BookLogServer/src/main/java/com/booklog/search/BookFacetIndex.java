@@ -0,0 +1,253 @@
+package com.booklog.search;
+
+import com.booklog.dto.FacetCount;
+import com.booklog.entity.Book;
+import com.booklog.event.BookChangedEvent;
+import com.booklog.event.ChangeType;
+import com.booklog.repository.BookRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap index of books by category, language and publisher.
+ * Each facet value maps to a compressed bitmap of book ids. A filter is the AND of
+ * the selected facets (values within one facet are OR-ed). Facet counts are disjunctive:
+ * each facet's values are counted against the selections of all other facets, so further
+ * values of an already selected facet keep their counts and can still be added.
+ */
+@Component
+public class BookFacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookFacetIndex.class);
+
+    private static final int MAX_FACET_VALUES = 20;
+
+    private final BookRepository bookRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RebuildQueue changes = new RebuildQueue();
+    private volatile boolean ready;
+
+    private final RoaringBitmap allBooks = new RoaringBitmap();
+    private final Map<Facet, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(Facet.class);
+    private final Map<Facet, Map<String, String>> labels = new EnumMap<>(Facet.class);
+    private final Map<Long, Map<Facet, List<String>>> bookValues = new HashMap<>();
+
+    public BookFacetIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+        for (Facet facet : Facet.values()) {
+            bitmaps.put(facet, new HashMap<>());
+            labels.put(facet, new HashMap<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Book> books = changes.rebuild(lock.writeLock(), bookRepository::findAll, snapshot -> {
+            allBooks.clear();
+            bookValues.clear();
+            bitmaps.values().forEach(Map::clear);
+            labels.values().forEach(Map::clear);
+            for (Book book : snapshot) {
+                add(book);
+            }
+            for (Map<String, RoaringBitmap> facetBitmaps : bitmaps.values()) {
+                facetBitmaps.values().forEach(RoaringBitmap::runOptimize);
+            }
+            ready = true;
+        });
+
+        log.info("Built facet index for {} books in {} ms", books.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        changes.submit(() -> apply(event));
+    }
+
+    private void apply(BookChangedEvent event) {
+        Book book = event.getBook();
+
+        lock.writeLock().lock();
+        try {
+            remove(book.getId());
+            if (event.getType() != ChangeType.DELETED) {
+                add(book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the index has been built since startup; until then every query would come back empty.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Filters books by facet values and counts the remaining books under each value.
+     * Null or empty selections leave that facet unfiltered.
+     */
+    public Result query(Map<Facet, List<String>> selections) {
+        lock.readLock().lock();
+        try {
+            Map<Facet, RoaringBitmap> selected = new EnumMap<>(Facet.class);
+            for (Map.Entry<Facet, List<String>> selection : selections.entrySet()) {
+                if (selection.getValue() == null || selection.getValue().isEmpty()) {
+                    continue;
+                }
+
+                RoaringBitmap facetMatches = new RoaringBitmap();
+                for (String value : selection.getValue()) {
+                    RoaringBitmap bitmap = bitmaps.get(selection.getKey()).get(normalize(value));
+                    if (bitmap != null) {
+                        facetMatches.or(bitmap);
+                    }
+                }
+                selected.put(selection.getKey(), facetMatches);
+            }
+
+            RoaringBitmap matches = intersect(selected, null);
+            Map<String, List<FacetCount>> counts = new LinkedHashMap<>();
+            for (Facet facet : Facet.values()) {
+                RoaringBitmap base = selected.containsKey(facet) ? intersect(selected, facet) : matches;
+                counts.put(facet.getName(), count(facet, base));
+            }
+
+            return new Result(matches, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // All books within the selections of every facet except the excluded one
+    private RoaringBitmap intersect(Map<Facet, RoaringBitmap> selected, Facet excluded) {
+        RoaringBitmap result = allBooks.clone();
+        selected.forEach((facet, facetMatches) -> {
+            if (facet != excluded) {
+                result.and(facetMatches);
+            }
+        });
+        return result;
+    }
+
+    private List<FacetCount> count(Facet facet, RoaringBitmap matches) {
+        List<FacetCount> counts = new ArrayList<>();
+        for (Map.Entry<String, RoaringBitmap> entry : bitmaps.get(facet).entrySet()) {
+            int count = RoaringBitmap.andCardinality(matches, entry.getValue());
+            if (count > 0) {
+                counts.add(new FacetCount(labels.get(facet).get(entry.getKey()), count));
+            }
+        }
+
+        counts.sort(Comparator.comparingInt(FacetCount::getCount).reversed()
+                .thenComparing(FacetCount::getValue));
+        return counts.size() > MAX_FACET_VALUES ? counts.subList(0, MAX_FACET_VALUES) : counts;
+    }
+
+    private void add(Book book) {
+        int docId = Math.toIntExact(book.getId());
+        Map<Facet, List<String>> values = new EnumMap<>(Facet.class);
+        addValues(values, Facet.CATEGORY, book.getCategories(), docId);
+        addValues(values, Facet.LANGUAGE, book.getLanguage() != null ? List.of(book.getLanguage()) : List.of(), docId);
+        addValues(values, Facet.PUBLISHER, book.getPublisher() != null ? List.of(book.getPublisher()) : List.of(), docId);
+
+        allBooks.add(docId);
+        bookValues.put(book.getId(), values);
+    }
+
+    private void addValues(Map<Facet, List<String>> values, Facet facet, Collection<String> rawValues, int docId) {
+        if (rawValues == null) {
+            return;
+        }
+
+        List<String> keys = new ArrayList<>();
+        for (String rawValue : rawValues) {
+            String key = normalize(rawValue);
+            if (key.isEmpty() || keys.contains(key)) {
+                continue;
+            }
+            bitmaps.get(facet).computeIfAbsent(key, k -> new RoaringBitmap()).add(docId);
+            labels.get(facet).putIfAbsent(key, rawValue.trim());
+            keys.add(key);
+        }
+        values.put(facet, keys);
+    }
+
+    private void remove(Long bookId) {
+        Map<Facet, List<String>> values = bookValues.remove(bookId);
+        if (values == null) {
+            return;
+        }
+
+        int docId = Math.toIntExact(bookId);
+        allBooks.remove(docId);
+        for (Map.Entry<Facet, List<String>> entry : values.entrySet()) {
+            Map<String, RoaringBitmap> facetBitmaps = bitmaps.get(entry.getKey());
+            for (String key : entry.getValue()) {
+                RoaringBitmap bitmap = facetBitmaps.get(key);
+                if (bitmap != null) {
+                    bitmap.remove(docId);
+                    if (bitmap.isEmpty()) {
+                        facetBitmaps.remove(key);
+                        labels.get(entry.getKey()).remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public enum Facet {
+        CATEGORY("categories"), LANGUAGE("language"), PUBLISHER("publisher");
+
+        private final String name;
+
+        Facet(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Matching book ids and the facet counts within them.
+     */
+    public record Result(RoaringBitmap matches, Map<String, List<FacetCount>> counts) {
+
+        /**
+         * Returns one page of matching ids, newest book first.
+         */
+        public List<Long> pageIds(long offset, int size) {
+            int total = matches.getCardinality();
+            List<Long> ids = new ArrayList<>(size);
+            for (long i = offset; i < offset + size && i < total; i++) {
+                ids.add(Integer.toUnsignedLong(matches.select((int) (total - 1 - i))));
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.booklog.search;
+
+import com.booklog.entity.Book;
+import com.booklog.event.BookChangedEvent;
+import com.booklog.event.ChangeType;
+import com.booklog.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over book titles, subtitles and authors.
+ * Postings map each bigram to the books containing it together with a field-weighted
+ * term frequency, and matches are ranked with BM25.
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int AUTHOR_WEIGHT = 2;
+    private static final int SUBTITLE_WEIGHT = 1;
+
+    private final BookRepository bookRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final InvertedIndex<Long> index = new InvertedIndex<>();
+    private final RebuildQueue changes = new RebuildQueue();
+    private volatile boolean ready;
+
+    public BookSearchIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Book> books = changes.rebuild(lock.writeLock(), bookRepository::findAll, snapshot -> {
+            index.clear();
+            for (Book book : snapshot) {
+                index.put(book.getId(), terms(book));
+            }
+            ready = true;
+        });
+
+        log.info("Indexed {} books ({} terms) in {} ms",
+                books.size(), index.termCount(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        changes.submit(() -> apply(event));
+    }
+
+    private void apply(BookChangedEvent event) {
+        Book book = event.getBook();
+
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == ChangeType.DELETED) {
+                index.remove(book.getId());
+            } else {
+                index.put(book.getId(), terms(book));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns true if the query can be answered from the index.
+     * Single-character queries produce no bigrams and must fall back to the database.
+     */
+    public boolean canSearch(String query) {
+        return ready && !NgramTokenizer.tokenize(query).isEmpty();
+    }
+
+    /**
+     * Returns the best {@code limit} books containing every bigram of the query, best match first,
+     * with the number of books that matched in total.
+     */
+    public InvertedIndex.Hits<Long> search(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(new LinkedHashSet<>(NgramTokenizer.tokenize(query)), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Integer> terms(Book book) {
+        Map<String, Integer> terms = new HashMap<>();
+        InvertedIndex.addField(terms, book.getTitle(), TITLE_WEIGHT);
+        InvertedIndex.addField(terms, book.getSubtitle(), SUBTITLE_WEIGHT);
+        if (book.getAuthors() != null) {
+            for (String author : book.getAuthors()) {
+                InvertedIndex.addField(terms, author, AUTHOR_WEIGHT);
+            }
+        }
+        return terms;
+    }
+}
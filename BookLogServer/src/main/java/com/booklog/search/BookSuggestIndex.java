@@ -0,0 +1,317 @@
+package com.booklog.search;
+
+import com.booklog.dto.BookSuggestion;
+import com.booklog.dto.BookSuggestion.SuggestionType;
+import com.booklog.entity.Book;
+import com.booklog.event.BookChangedEvent;
+import com.booklog.event.ChangeType;
+import com.booklog.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie over book titles and author names for autocomplete.
+ * Every node caches the top suggestions of its subtree, so a lookup only walks the prefix.
+ * After a change the caches are recomputed bottom-up along the changed path from the
+ * children's caches. The node count is capped by {@code booklog.suggest.max-nodes};
+ * terms that would exceed it are rejected and counted.
+ */
+@Component
+public class BookSuggestIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSuggestIndex.class);
+
+    private static final int MAX_SUGGESTIONS = 10;
+    private static final int MAX_KEY_LENGTH = 40;
+
+    private static final Comparator<Entry> BY_WEIGHT = Comparator
+            .comparingLong((Entry entry) -> entry.weight).reversed()
+            .thenComparing(entry -> entry.text);
+
+    private final BookRepository bookRepository;
+    private final int maxNodes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RebuildQueue changes = new RebuildQueue();
+
+    private Node root = new Node();
+    private Map<Long, List<TermKey>> bookTerms = new HashMap<>();
+    private int nodeCount = 1;
+    private int entryCount;
+    private long rejectedCount;
+    private long lastBuildMillis;
+
+    public BookSuggestIndex(BookRepository bookRepository,
+                            @Value("${booklog.suggest.max-nodes:500000}") int maxNodes) {
+        this.bookRepository = bookRepository;
+        this.maxNodes = maxNodes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Book> books = changes.rebuild(lock.writeLock(), bookRepository::findAll, snapshot -> {
+            root = new Node();
+            bookTerms = new HashMap<>();
+            nodeCount = 1;
+            entryCount = 0;
+            rejectedCount = 0;
+            for (Book book : snapshot) {
+                put(book);
+            }
+            lastBuildMillis = System.currentTimeMillis() - start;
+        });
+
+        log.info("Built suggest index for {} books ({} nodes, {} entries) in {} ms",
+                books.size(), nodeCount, entryCount, lastBuildMillis);
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        changes.submit(() -> apply(event));
+    }
+
+    private void apply(BookChangedEvent event) {
+        Book book = event.getBook();
+
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == ChangeType.DELETED) {
+                remove(book.getId());
+            } else {
+                put(book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<BookSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+
+            return node.top.stream()
+                    .limit(Math.min(limit, MAX_SUGGESTIONS))
+                    .map(Entry::toSuggestion)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("books", bookTerms.size());
+            stats.put("entries", entryCount);
+            stats.put("nodes", nodeCount);
+            stats.put("maxNodes", maxNodes);
+            stats.put("rejectedTerms", rejectedCount);
+            stats.put("lastBuildMillis", lastBuildMillis);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Book book) {
+        remove(book.getId());
+
+        long weight = book.getRatingsCount() != null ? book.getRatingsCount() : 0;
+        List<TermKey> terms = new ArrayList<>();
+        addTerm(terms, SuggestionType.TITLE, book.getTitle(), book.getId(), weight);
+        if (book.getAuthors() != null) {
+            for (String author : book.getAuthors()) {
+                addTerm(terms, SuggestionType.AUTHOR, author, book.getId(), weight);
+            }
+        }
+
+        if (!terms.isEmpty()) {
+            bookTerms.put(book.getId(), terms);
+        }
+    }
+
+    private void addTerm(List<TermKey> terms, SuggestionType type, String text, Long bookId, long weight) {
+        String key = normalize(text);
+        if (key.isEmpty()) {
+            return;
+        }
+
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        path.add(root);
+        Node node = root;
+        int missing = 0;
+        for (int i = 0; i < key.length(); i++) {
+            node = node == null ? null : node.children.get(key.charAt(i));
+            if (node == null) {
+                missing++;
+            }
+        }
+        if (nodeCount + missing > maxNodes) {
+            rejectedCount++;
+            return;
+        }
+
+        node = root;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            Node child = node.children.get(c);
+            if (child == null) {
+                child = new Node();
+                node.children.put(c, child);
+                nodeCount++;
+            }
+            node = child;
+            path.add(node);
+        }
+
+        Entry entry = node.entries.get(type);
+        if (entry == null) {
+            entry = new Entry(type, text.trim());
+            node.entries.put(type, entry);
+            entryCount++;
+        }
+        entry.contributions.put(bookId, weight);
+        entry.recalculate();
+
+        refresh(path);
+        terms.add(new TermKey(type, key));
+    }
+
+    private void remove(Long bookId) {
+        List<TermKey> terms = bookTerms.remove(bookId);
+        if (terms == null) {
+            return;
+        }
+
+        for (TermKey term : terms) {
+            List<Node> path = new ArrayList<>(term.key().length() + 1);
+            path.add(root);
+            Node node = root;
+            for (int i = 0; i < term.key().length() && node != null; i++) {
+                node = node.children.get(term.key().charAt(i));
+                path.add(node);
+            }
+            if (node == null) {
+                continue;
+            }
+
+            Entry entry = node.entries.get(term.type());
+            if (entry != null) {
+                entry.contributions.remove(bookId);
+                if (entry.contributions.isEmpty()) {
+                    node.entries.remove(term.type());
+                    entryCount--;
+                } else {
+                    entry.recalculate();
+                }
+            }
+
+            prune(path, term.key());
+            refresh(path);
+        }
+    }
+
+    private void prune(List<Node> path, String key) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            if (!node.entries.isEmpty() || !node.children.isEmpty()) {
+                return;
+            }
+            path.get(i - 1).children.remove(key.charAt(i - 1));
+            path.remove(i);
+            nodeCount--;
+        }
+    }
+
+    private static void refresh(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            List<Entry> candidates = new ArrayList<>(node.entries.values());
+            for (Node child : node.children.values()) {
+                candidates.addAll(child.top);
+            }
+            candidates.sort(BY_WEIGHT);
+            node.top = candidates.size() > MAX_SUGGESTIONS
+                    ? new ArrayList<>(candidates.subList(0, MAX_SUGGESTIONS))
+                    : candidates;
+        }
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .trim()
+                .replaceAll("\\s+", " ");
+        return normalized.length() > MAX_KEY_LENGTH ? normalized.substring(0, MAX_KEY_LENGTH) : normalized;
+    }
+
+    private record TermKey(SuggestionType type, String key) {
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final Map<SuggestionType, Entry> entries = new EnumMap<>(SuggestionType.class);
+        private List<Entry> top = new ArrayList<>(0);
+    }
+
+    private static final class Entry {
+        private final SuggestionType type;
+        private final String text;
+        private final Map<Long, Long> contributions = new HashMap<>(2);
+        private long weight;
+        private Long topBookId;
+
+        private Entry(SuggestionType type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+
+        private void recalculate() {
+            weight = 0;
+            long best = -1;
+            for (Map.Entry<Long, Long> contribution : contributions.entrySet()) {
+                weight += contribution.getValue();
+                if (contribution.getValue() > best) {
+                    best = contribution.getValue();
+                    topBookId = contribution.getKey();
+                }
+            }
+        }
+
+        private BookSuggestion toSuggestion() {
+            return new BookSuggestion(text, type, type == SuggestionType.TITLE ? topBookId : null, weight);
+        }
+    }
+}
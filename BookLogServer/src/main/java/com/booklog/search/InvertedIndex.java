@@ -0,0 +1,136 @@
+package com.booklog.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Term postings with BM25 ranking. Not thread-safe; owners guard it with their own lock.
+ *
+ * @param <K> document key
+ */
+public class InvertedIndex<K extends Comparable<K>> {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Map<K, Integer>> postings = new HashMap<>();
+    private final Map<K, Map<String, Integer>> documents = new HashMap<>();
+    private final Map<K, Integer> documentLengths = new HashMap<>();
+    private long totalLength;
+
+    /**
+     * Adds a document, replacing any previous version with the same key.
+     *
+     * @param terms term to (possibly field-weighted) frequency
+     */
+    public void put(K key, Map<String, Integer> terms) {
+        remove(key);
+
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : terms.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(key, entry.getValue());
+            length += entry.getValue();
+        }
+
+        documents.put(key, terms);
+        documentLengths.put(key, Math.max(length, 1));
+        totalLength += Math.max(length, 1);
+    }
+
+    public void remove(K key) {
+        Map<String, Integer> terms = documents.remove(key);
+        if (terms == null) {
+            return;
+        }
+
+        for (String term : terms.keySet()) {
+            Map<K, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(key);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= documentLengths.remove(key);
+    }
+
+    public void clear() {
+        postings.clear();
+        documents.clear();
+        documentLengths.clear();
+        totalLength = 0;
+    }
+
+    public int documentCount() {
+        return documents.size();
+    }
+
+    public int termCount() {
+        return postings.size();
+    }
+
+    /**
+     * Returns the best {@code limit} documents containing every term, best match first,
+     * with the number of documents that matched in total.
+     */
+    public Hits<K> search(Collection<String> terms, int limit) {
+        if (terms.isEmpty()) {
+            return new Hits<>(List.of(), 0);
+        }
+
+        List<Map<K, Integer>> termPostings = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Map<K, Integer> posting = postings.get(term);
+            if (posting == null) {
+                return new Hits<>(List.of(), 0);
+            }
+            termPostings.add(posting);
+        }
+
+        // Drive the intersection from the rarest term
+        termPostings.sort(Comparator.comparingInt(Map::size));
+
+        int documentCount = documents.size();
+        double averageLength = documentCount == 0 ? 1.0 : (double) totalLength / documentCount;
+
+        List<Match<K>> matches = new ArrayList<>();
+        candidates:
+        for (K key : termPostings.get(0).keySet()) {
+            double lengthNorm = K1 * (1 - B + B * documentLengths.get(key) / averageLength);
+            double score = 0;
+            for (Map<K, Integer> posting : termPostings) {
+                Integer tf = posting.get(key);
+                if (tf == null) {
+                    continue candidates;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                score += idf * (tf * (K1 + 1)) / (tf + lengthNorm);
+            }
+            matches.add(new Match<>(key, score));
+        }
+
+        List<Match<K>> best = matches.stream()
+                .sorted(Comparator.comparingDouble((Match<K> match) -> match.score()).reversed()
+                        .thenComparing(Match::key))
+                .limit(limit)
+                .toList();
+        return new Hits<>(best, matches.size());
+    }
+
+    public static void addField(Map<String, Integer> terms, String text, int weight) {
+        for (String token : NgramTokenizer.tokenize(text)) {
+            terms.merge(token, weight, Integer::sum);
+        }
+    }
+
+    public record Match<K>(K key, double score) {
+    }
+
+    public record Hits<K>(List<Match<K>> matches, int total) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.booklog.search;
+
+import com.booklog.entity.Book;
+import com.booklog.event.BookChangedEvent;
+import com.booklog.event.ChangeType;
+import com.booklog.repository.BookRepository;
+import com.booklog.util.IsbnUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory map from canonical ISBN-13 to book id, mirroring the unique books.isbn column.
+ * <p>
+ * Rebuilds and book changes are serialized on the index monitor. The rebuild reads its rows only after
+ * taking the monitor, so a change committed while it runs waits and is applied on top of the new map;
+ * a change already in the rows is applied again, which leaves the map as it was.
+ */
+@Component
+public class IsbnIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(IsbnIndex.class);
+
+    private final BookRepository bookRepository;
+
+    private final Map<String, Long> bookIdsByIsbn = new ConcurrentHashMap<>();
+    private final Map<Long, String> isbnsByBookId = new HashMap<>();
+
+    public IsbnIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public synchronized void rebuild() {
+        bookIdsByIsbn.clear();
+        isbnsByBookId.clear();
+        for (Object[] row : bookRepository.findAllIsbnIds()) {
+            put((String) row[0], (Long) row[1]);
+        }
+
+        // Backfill books saved before the canonical column existed
+        List<Book> missing = bookRepository.findBooksMissingCanonicalIsbn();
+        for (Book book : missing) {
+            String isbn = IsbnUtils.canonical(book.getIsbn13(), book.getIsbn10());
+            if (isbn == null) {
+                continue;
+            }
+            if (bookIdsByIsbn.containsKey(isbn)) {
+                // Flagged so later saves keep its canonical ISBN empty and later startups skip it
+                log.warn("Book {} has the same ISBN {} as book {}, marking it as a duplicate",
+                        book.getId(), isbn, bookIdsByIsbn.get(isbn));
+                book.setIsbnDuplicate(true);
+                continue;
+            }
+            book.setIsbn(isbn);
+            put(isbn, book.getId());
+        }
+
+        log.info("Loaded {} ISBNs", bookIdsByIsbn.size());
+    }
+
+    @TransactionalEventListener
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        Book book = event.getBook();
+
+        String previous = isbnsByBookId.remove(book.getId());
+        if (previous != null) {
+            bookIdsByIsbn.remove(previous);
+        }
+        if (event.getType() != ChangeType.DELETED && book.getIsbn() != null) {
+            put(book.getIsbn(), book.getId());
+        }
+    }
+
+    /**
+     * Returns the id of the book with the given canonical ISBN, or null if it is not cached.
+     */
+    public Long findBookId(String isbn) {
+        return bookIdsByIsbn.get(isbn);
+    }
+
+    private void put(String isbn, Long bookId) {
+        bookIdsByIsbn.put(isbn, bookId);
+        isbnsByBookId.put(bookId, isbn);
+    }
+}
@@ -0,0 +1,216 @@
+package com.booklog.search;
+
+import com.booklog.dto.FacetCount;
+import com.booklog.entity.LibraryBook;
+import com.booklog.entity.LibraryBook.BookStatus;
+import com.booklog.repository.LibraryBookRepository;
+import com.booklog.util.UserCache;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Per-user bitmap index of library entries by tag and status.
+ * Each tag and each status maps to a compressed bitmap of library_books ids, so tag filters
+ * (all of, any of, none of) and tag counts are bitmap operations instead of correlated
+ * subqueries on library_book_tags. A user's index is loaded on first use, kept for the most
+ * recently used users, and updated after each committed change from LibraryBookService.
+ */
+@Component
+public class LibraryTagIndex {
+
+    private static final int MAX_CACHED_USERS = 10000;
+
+    private final LibraryBookRepository libraryBookRepository;
+
+    private final UserCache<Long, UserIndex> indexes = UserCache.perUser(MAX_CACHED_USERS);
+
+    public LibraryTagIndex(LibraryBookRepository libraryBookRepository) {
+        this.libraryBookRepository = libraryBookRepository;
+    }
+
+    /**
+     * Indexes the entry's current status and tags once the surrounding transaction commits.
+     */
+    public void update(Long userId, LibraryBook libraryBook) {
+        int docId = Math.toIntExact(libraryBook.getId());
+        BookStatus status = libraryBook.getStatus();
+        List<String> tags = libraryBook.getTags() != null ? List.copyOf(libraryBook.getTags()) : List.of();
+        afterCommit(userId, index -> index.put(docId, status, tags));
+    }
+
+    public void remove(Long userId, Long libraryBookId) {
+        int docId = Math.toIntExact(libraryBookId);
+        afterCommit(userId, index -> index.remove(docId));
+    }
+
+    /**
+     * Returns the user's entries with the given status (any if null) that have all of allTags,
+     * at least one of anyTags if given, and none of noneTags.
+     */
+    public Result query(Long userId, BookStatus status, Collection<String> allTags,
+                        Collection<String> anyTags, Collection<String> noneTags) {
+        UserIndex index = getIndex(userId);
+        index.lock.readLock().lock();
+        try {
+            RoaringBitmap matches = status != null
+                    ? index.byStatus.getOrDefault(status, new RoaringBitmap()).clone()
+                    : index.all.clone();
+            if (allTags != null) {
+                for (String tag : allTags) {
+                    matches.and(index.byTag.getOrDefault(tag, new RoaringBitmap()));
+                }
+            }
+            if (anyTags != null && !anyTags.isEmpty()) {
+                RoaringBitmap any = new RoaringBitmap();
+                for (String tag : anyTags) {
+                    RoaringBitmap bitmap = index.byTag.get(tag);
+                    if (bitmap != null) {
+                        any.or(bitmap);
+                    }
+                }
+                matches.and(any);
+            }
+            if (noneTags != null) {
+                for (String tag : noneTags) {
+                    RoaringBitmap bitmap = index.byTag.get(tag);
+                    if (bitmap != null) {
+                        matches.andNot(bitmap);
+                    }
+                }
+            }
+            return new Result(matches);
+        } finally {
+            index.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the user's entries under each tag, within the given matches if not null.
+     * Most used tags first.
+     */
+    public List<FacetCount> countTags(Long userId, RoaringBitmap within) {
+        UserIndex index = getIndex(userId);
+        List<FacetCount> counts = new ArrayList<>();
+        index.lock.readLock().lock();
+        try {
+            for (Map.Entry<String, RoaringBitmap> entry : index.byTag.entrySet()) {
+                int count = within != null
+                        ? RoaringBitmap.andCardinality(within, entry.getValue())
+                        : entry.getValue().getCardinality();
+                if (count > 0) {
+                    counts.add(new FacetCount(entry.getKey(), count));
+                }
+            }
+        } finally {
+            index.lock.readLock().unlock();
+        }
+
+        counts.sort(Comparator.comparingInt(FacetCount::getCount).reversed()
+                .thenComparing(FacetCount::getValue));
+        return counts;
+    }
+
+    private UserIndex getIndex(Long userId) {
+        return indexes.getOrLoad(userId, this::loadIndex);
+    }
+
+    private UserIndex loadIndex(Long userId) {
+        UserIndex index = new UserIndex();
+        for (Object[] row : libraryBookRepository.findIdAndStatusByUserId(userId)) {
+            index.put(Math.toIntExact((Long) row[0]), (BookStatus) row[1], List.of());
+        }
+        for (Object[] row : libraryBookRepository.findIdAndTagByUserId(userId)) {
+            index.addTag(Math.toIntExact((Long) row[0]), (String) row[1]);
+        }
+        index.byTag.values().forEach(RoaringBitmap::runOptimize);
+        return index;
+    }
+
+    private void afterCommit(Long userId, Consumer<UserIndex> change) {
+        indexes.afterCommit(userId, () -> {
+            UserIndex index = indexes.get(userId);
+            if (index != null) {
+                index.lock.writeLock().lock();
+                try {
+                    change.accept(index);
+                } finally {
+                    index.lock.writeLock().unlock();
+                }
+            }
+        });
+    }
+
+    private static class UserIndex {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final Map<BookStatus, RoaringBitmap> byStatus = new EnumMap<>(BookStatus.class);
+        private final Map<String, RoaringBitmap> byTag = new HashMap<>();
+        private final Map<Integer, BookStatus> statuses = new HashMap<>();
+        private final Map<Integer, List<String>> tags = new HashMap<>();
+
+        private void put(int docId, BookStatus status, List<String> docTags) {
+            remove(docId);
+            all.add(docId);
+            byStatus.computeIfAbsent(status, s -> new RoaringBitmap()).add(docId);
+            statuses.put(docId, status);
+            for (String tag : docTags) {
+                addTag(docId, tag);
+            }
+        }
+
+        private void addTag(int docId, String tag) {
+            byTag.computeIfAbsent(tag, t -> new RoaringBitmap()).add(docId);
+            tags.computeIfAbsent(docId, id -> new ArrayList<>()).add(tag);
+        }
+
+        private void remove(int docId) {
+            BookStatus status = statuses.remove(docId);
+            if (status == null) {
+                return;
+            }
+
+            all.remove(docId);
+            byStatus.get(status).remove(docId);
+            for (String tag : tags.getOrDefault(docId, List.of())) {
+                RoaringBitmap bitmap = byTag.get(tag);
+                bitmap.remove(docId);
+                if (bitmap.isEmpty()) {
+                    byTag.remove(tag);
+                }
+            }
+            tags.remove(docId);
+        }
+    }
+
+    /**
+     * Matching library entry ids.
+     */
+    public record Result(RoaringBitmap matches) {
+
+        public int total() {
+            return matches.getCardinality();
+        }
+
+        /**
+         * Returns one page of matching ids, most recently added entry first.
+         */
+        public List<Long> pageIds(long offset, int size) {
+            int total = matches.getCardinality();
+            List<Long> ids = new ArrayList<>(size);
+            for (long i = offset; i < offset + size && i < total; i++) {
+                ids.add(Integer.toUnsignedLong(matches.select((int) (total - 1 - i))));
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.booklog.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into overlapping character bigrams.
+ * Korean titles are often spaced inconsistently ("해리 포터" vs "해리포터"),
+ * so a bigram is also emitted across a space between two Hangul syllables.
+ */
+public final class NgramTokenizer {
+
+    private NgramTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+
+        char previous = 0;
+        boolean inRun = false;
+        char lastOfPreviousRun = 0;
+
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+
+            if (Character.isLetterOrDigit(c)) {
+                if (inRun) {
+                    tokens.add(new String(new char[]{previous, c}));
+                } else if (isHangul(lastOfPreviousRun) && isHangul(c)) {
+                    tokens.add(new String(new char[]{lastOfPreviousRun, c}));
+                }
+                previous = c;
+                inRun = true;
+            } else {
+                if (inRun) {
+                    lastOfPreviousRun = previous;
+                }
+                inRun = false;
+            }
+        }
+
+        return tokens;
+    }
+
+    private static boolean isHangul(char c) {
+        return c != 0 && Character.UnicodeScript.of(c) == Character.UnicodeScript.HANGUL;
+    }
+}
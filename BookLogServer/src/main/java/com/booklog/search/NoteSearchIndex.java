@@ -0,0 +1,161 @@
+package com.booklog.search;
+
+import com.booklog.entity.ReadingHighlight;
+import com.booklog.entity.ReadingNote;
+import com.booklog.event.ChangeType;
+import com.booklog.event.ReadingHighlightChangedEvent;
+import com.booklog.event.ReadingNoteChangedEvent;
+import com.booklog.repository.ReadingHighlightRepository;
+import com.booklog.repository.ReadingNoteRepository;
+import com.booklog.util.UserCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-user inverted index over note content and highlight content/notes.
+ * Each user's index is loaded lazily on first search, guarded by its own lock so that
+ * loading one user's entries never blocks another user's searches, and evicted
+ * least-recently-used once too many users are cached.
+ */
+@Component
+public class NoteSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteSearchIndex.class);
+
+    private static final int MAX_CACHED_USERS = 1000;
+
+    private final ReadingNoteRepository readingNoteRepository;
+    private final ReadingHighlightRepository readingHighlightRepository;
+
+    private final UserCache<Long, UserIndex> userIndexes = UserCache.perUser(MAX_CACHED_USERS);
+
+    public NoteSearchIndex(ReadingNoteRepository readingNoteRepository,
+                           ReadingHighlightRepository readingHighlightRepository) {
+        this.readingNoteRepository = readingNoteRepository;
+        this.readingHighlightRepository = readingHighlightRepository;
+    }
+
+    /**
+     * Returns the user's best {@code limit} notes and highlights containing every bigram of the query,
+     * best match first, with the number that matched in total.
+     */
+    public InvertedIndex.Hits<EntryKey> search(Long userId, String query, int limit) {
+        LinkedHashSet<String> terms = new LinkedHashSet<>(NgramTokenizer.tokenize(query));
+        if (terms.isEmpty()) {
+            return new InvertedIndex.Hits<>(List.of(), 0);
+        }
+
+        UserIndex userIndex = userIndexes.computeIfAbsent(userId, id -> new UserIndex());
+        userIndex.ensureLoaded(userId);
+
+        userIndex.lock.readLock().lock();
+        try {
+            return userIndex.index.search(terms, limit);
+        } finally {
+            userIndex.lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onNoteChanged(ReadingNoteChangedEvent event) {
+        ReadingNote note = event.getNote();
+        EntryKey key = new EntryKey(EntryType.NOTE, note.getId());
+        apply(note.getUser().getId(), key, event.getType(), noteTerms(note.getContent()));
+    }
+
+    @TransactionalEventListener
+    public void onHighlightChanged(ReadingHighlightChangedEvent event) {
+        ReadingHighlight highlight = event.getHighlight();
+        EntryKey key = new EntryKey(EntryType.HIGHLIGHT, highlight.getId());
+        apply(highlight.getUser().getId(), key, event.getType(),
+                highlightTerms(highlight.getContent(), highlight.getNote()));
+    }
+
+    private void apply(Long userId, EntryKey key, ChangeType type, Map<String, Integer> terms) {
+        // Users without a cached index pick the change up when their index is loaded
+        UserIndex userIndex = userIndexes.get(userId);
+        if (userIndex == null) {
+            return;
+        }
+
+        userIndex.lock.writeLock().lock();
+        try {
+            if (type == ChangeType.DELETED) {
+                userIndex.index.remove(key);
+            } else {
+                userIndex.index.put(key, terms);
+            }
+        } finally {
+            userIndex.lock.writeLock().unlock();
+        }
+    }
+
+    private static Map<String, Integer> noteTerms(String content) {
+        Map<String, Integer> terms = new HashMap<>();
+        InvertedIndex.addField(terms, content, 1);
+        return terms;
+    }
+
+    private static Map<String, Integer> highlightTerms(String content, String note) {
+        Map<String, Integer> terms = new HashMap<>();
+        InvertedIndex.addField(terms, content, 1);
+        InvertedIndex.addField(terms, note, 1);
+        return terms;
+    }
+
+    public enum EntryType {
+        NOTE, HIGHLIGHT
+    }
+
+    public record EntryKey(EntryType type, Long id) implements Comparable<EntryKey> {
+
+        @Override
+        public int compareTo(EntryKey other) {
+            int result = type.compareTo(other.type);
+            return result != 0 ? result : id.compareTo(other.id);
+        }
+    }
+
+    private final class UserIndex {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final InvertedIndex<EntryKey> index = new InvertedIndex<>();
+        private volatile boolean loaded;
+
+        private void ensureLoaded(Long userId) {
+            if (loaded) {
+                return;
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    return;
+                }
+
+                long start = System.currentTimeMillis();
+                for (Object[] row : readingNoteRepository.findSearchableContentByUserId(userId)) {
+                    index.put(new EntryKey(EntryType.NOTE, (Long) row[0]), noteTerms((String) row[1]));
+                }
+                for (Object[] row : readingHighlightRepository.findSearchableContentByUserId(userId)) {
+                    index.put(new EntryKey(EntryType.HIGHLIGHT, (Long) row[0]),
+                            highlightTerms((String) row[1], (String) row[2]));
+                }
+                loaded = true;
+
+                log.debug("Loaded note index for user {} ({} entries) in {} ms",
+                        userId, index.documentCount(), System.currentTimeMillis() - start);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
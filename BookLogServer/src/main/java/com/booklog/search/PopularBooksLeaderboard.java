@@ -0,0 +1,283 @@
+package com.booklog.search;
+
+import com.booklog.entity.Book;
+import com.booklog.event.BookChangedEvent;
+import com.booklog.event.BookRatingChangedEvent;
+import com.booklog.event.ChangeType;
+import com.booklog.repository.BookRepository;
+import com.booklog.repository.LibraryBookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Books ranked by a Bayesian average of the external rating and our users' ratings:
+ * {@code (v * R + m * C) / (v + m)}, where v is the combined number of ratings, R the combined mean,
+ * C the mean over all rated books and m the prior weight. A book with a single 5-star rating therefore
+ * stays close to C until it collects more ratings.
+ * <p>
+ * Scores are kept in sorted sets (overall, per category and per language) that are updated in
+ * O(log n) on every rating or book change. C is fixed when the leaderboard is built. A rating change
+ * reloads the book's rating totals instead of applying a delta, so changes replayed after a rebuild
+ * are harmless.
+ */
+@Component
+public class PopularBooksLeaderboard {
+
+    private static final Logger log = LoggerFactory.getLogger(PopularBooksLeaderboard.class);
+
+    private static final double PRIOR_WEIGHT = 10.0;
+    private static final double DEFAULT_MEAN = 3.0;
+
+    private static final Comparator<Entry> BY_SCORE = Comparator
+            .comparingDouble((Entry entry) -> entry.score).reversed()
+            .thenComparingLong(entry -> entry.bookId);
+
+    private final BookRepository bookRepository;
+    private final LibraryBookRepository libraryBookRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RebuildQueue changes = new RebuildQueue();
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final NavigableSet<Entry> overall = new TreeSet<>(BY_SCORE);
+    private final Map<String, NavigableSet<Entry>> byCategory = new HashMap<>();
+    private final Map<String, NavigableSet<Entry>> byLanguage = new HashMap<>();
+    private double priorMean = DEFAULT_MEAN;
+
+    public PopularBooksLeaderboard(BookRepository bookRepository, LibraryBookRepository libraryBookRepository) {
+        this.bookRepository = bookRepository;
+        this.libraryBookRepository = libraryBookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Snapshot snapshot = changes.rebuild(lock.writeLock(), this::readSnapshot, data -> {
+            entries.clear();
+            overall.clear();
+            byCategory.clear();
+            byLanguage.clear();
+
+            for (Book book : data.books()) {
+                Entry entry = new Entry(book.getId());
+                entry.setBook(book);
+                entries.put(book.getId(), entry);
+            }
+            for (Object[] row : data.userRatings()) {
+                Entry entry = entries.get((Long) row[0]);
+                if (entry != null) {
+                    entry.localSum = ((Number) row[1]).longValue();
+                    entry.localCount = ((Number) row[2]).intValue();
+                }
+            }
+
+            priorMean = computePriorMean();
+            for (Entry entry : entries.values()) {
+                entry.score = score(entry);
+                link(entry);
+            }
+        });
+
+        log.info("Built popular books leaderboard for {} books in {} ms",
+                snapshot.books().size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        changes.submit(() -> apply(event));
+    }
+
+    @TransactionalEventListener
+    public void onBookRatingChanged(BookRatingChangedEvent event) {
+        changes.submit(() -> reloadUserRatings(event.getBookId()));
+    }
+
+    /**
+     * Returns the ids of the highest-scoring books, optionally restricted to a category and/or language.
+     */
+    public List<Long> top(String category, String language, int limit) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Entry> candidates;
+            if (category != null) {
+                candidates = byCategory.get(normalize(category));
+            } else if (language != null) {
+                candidates = byLanguage.get(normalize(language));
+            } else {
+                candidates = overall;
+            }
+            if (candidates == null) {
+                return List.of();
+            }
+
+            String languageKey = language != null ? normalize(language) : null;
+            List<Long> ids = new ArrayList<>(limit);
+            for (Entry entry : candidates) {
+                if (ids.size() >= limit) {
+                    break;
+                }
+                if (languageKey == null || languageKey.equals(entry.language)) {
+                    ids.add(entry.bookId);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Snapshot readSnapshot() {
+        return new Snapshot(bookRepository.findAll(), libraryBookRepository.sumUserRatingsByBook());
+    }
+
+    private void apply(BookChangedEvent event) {
+        Book book = event.getBook();
+
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(book.getId());
+            if (entry != null) {
+                unlink(entry);
+            }
+            if (event.getType() == ChangeType.DELETED) {
+                entries.remove(book.getId());
+                return;
+            }
+
+            if (entry == null) {
+                entry = new Entry(book.getId());
+                entries.put(book.getId(), entry);
+            }
+            entry.setBook(book);
+            entry.score = score(entry);
+            link(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Reads the committed totals rather than applying the event's delta, so a rating that is already
+    // in the rebuild snapshot is not counted twice; read under the lock so the latest read wins
+    private void reloadUserRatings(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(bookId);
+            if (entry == null) {
+                return;
+            }
+
+            Object[] totals = libraryBookRepository.sumUserRatingsOfBook(bookId).get(0);
+            unlink(entry);
+            entry.localSum = totals[0] != null ? ((Number) totals[0]).longValue() : 0;
+            entry.localCount = ((Number) totals[1]).intValue();
+            entry.score = score(entry);
+            link(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private double computePriorMean() {
+        double sum = 0;
+        long count = 0;
+        for (Entry entry : entries.values()) {
+            sum += entry.ratingSum();
+            count += entry.ratingCount();
+        }
+        return count == 0 ? DEFAULT_MEAN : sum / count;
+    }
+
+    private double score(Entry entry) {
+        long votes = entry.ratingCount();
+        return (entry.ratingSum() + PRIOR_WEIGHT * priorMean) / (votes + PRIOR_WEIGHT);
+    }
+
+    // Only books with at least one rating are ranked
+    private void link(Entry entry) {
+        if (entry.ratingCount() == 0) {
+            return;
+        }
+
+        overall.add(entry);
+        for (String category : entry.categories) {
+            byCategory.computeIfAbsent(category, key -> new TreeSet<>(BY_SCORE)).add(entry);
+        }
+        if (entry.language != null) {
+            byLanguage.computeIfAbsent(entry.language, key -> new TreeSet<>(BY_SCORE)).add(entry);
+        }
+    }
+
+    private void unlink(Entry entry) {
+        overall.remove(entry);
+        for (String category : entry.categories) {
+            removeFrom(byCategory, category, entry);
+        }
+        if (entry.language != null) {
+            removeFrom(byLanguage, entry.language, entry);
+        }
+    }
+
+    private static void removeFrom(Map<String, NavigableSet<Entry>> sets, String key, Entry entry) {
+        NavigableSet<Entry> set = sets.get(key);
+        if (set != null) {
+            set.remove(entry);
+            if (set.isEmpty()) {
+                sets.remove(key);
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Snapshot(List<Book> books, List<Object[]> userRatings) {
+    }
+
+    private static final class Entry {
+        private final long bookId;
+        private double externalAverage;
+        private int externalCount;
+        private long localSum;
+        private int localCount;
+        private List<String> categories = List.of();
+        private String language;
+        private double score;
+
+        private Entry(long bookId) {
+            this.bookId = bookId;
+        }
+
+        private void setBook(Book book) {
+            externalAverage = book.getAverageRating() != null ? book.getAverageRating() : 0.0;
+            externalCount = book.getRatingsCount() != null ? book.getRatingsCount() : 0;
+            categories = book.getCategories() == null ? List.of() : book.getCategories().stream()
+                    .filter(category -> category != null && !category.isBlank())
+                    .map(PopularBooksLeaderboard::normalize)
+                    .distinct()
+                    .toList();
+            language = book.getLanguage() != null ? normalize(book.getLanguage()) : null;
+        }
+
+        private double ratingSum() {
+            return externalAverage * externalCount + localSum;
+        }
+
+        private long ratingCount() {
+            return (long) externalCount + localCount;
+        }
+    }
+}
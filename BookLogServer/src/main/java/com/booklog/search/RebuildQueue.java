@@ -0,0 +1,62 @@
+package com.booklog.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Keeps an index's incremental changes from being lost while it is rebuilt from a snapshot.
+ * Changes submitted from the moment the snapshot is read are queued, and replayed on top of the
+ * new build before the write lock is released; applying a change twice must be harmless.
+ */
+final class RebuildQueue {
+
+    private List<Runnable> queued;
+
+    /**
+     * Reads the snapshot, builds the index from it under the write lock and then applies the changes
+     * queued meanwhile. If reading or building fails, the queued changes are still applied.
+     */
+    <S> S rebuild(Lock writeLock, Supplier<S> snapshot, Consumer<S> build) {
+        synchronized (this) {
+            queued = new ArrayList<>();
+        }
+
+        S data = null;
+        try {
+            data = snapshot.get();
+        } finally {
+            writeLock.lock();
+            try {
+                if (data != null) {
+                    build.accept(data);
+                }
+            } finally {
+                replay();
+                writeLock.unlock();
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Applies a change now, or after the build if a rebuild is in progress.
+     */
+    void submit(Runnable change) {
+        synchronized (this) {
+            if (queued != null) {
+                queued.add(change);
+                return;
+            }
+        }
+        change.run();
+    }
+
+    private synchronized void replay() {
+        List<Runnable> changes = queued;
+        queued = null;
+        changes.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,75 @@
+package com.booklog.search;
+
+import java.util.Locale;
+
+/**
+ * Cuts a short window of text around the first match of a query.
+ */
+public final class SnippetBuilder {
+
+    private static final int CONTEXT_LENGTH = 40;
+    private static final String ELLIPSIS = "…";
+
+    private SnippetBuilder() {
+    }
+
+    /**
+     * Builds a snippet from the first text containing the query or one of its bigrams.
+     * Falls back to the start of the first non-empty text.
+     */
+    public static String build(String query, String... texts) {
+        String fallback = null;
+        for (String text : texts) {
+            if (text == null || text.isEmpty()) {
+                continue;
+            }
+            if (fallback == null) {
+                fallback = text;
+            }
+
+            int[] match = findMatch(text, query);
+            if (match != null) {
+                return window(text, match[0], match[1]);
+            }
+        }
+        return fallback == null ? null : window(fallback, 0, 0);
+    }
+
+    private static int[] findMatch(String text, String query) {
+        String lowerText = text.toLowerCase(Locale.ROOT);
+        if (lowerText.length() != text.length()) {
+            // Lower-casing changed offsets, so match on the original text instead
+            lowerText = text;
+        }
+
+        String phrase = query.trim().toLowerCase(Locale.ROOT);
+        int position = phrase.isEmpty() ? -1 : lowerText.indexOf(phrase);
+        if (position >= 0) {
+            return new int[]{position, phrase.length()};
+        }
+
+        int[] earliest = null;
+        for (String token : NgramTokenizer.tokenize(query)) {
+            position = lowerText.indexOf(token);
+            if (position >= 0 && (earliest == null || position < earliest[0])) {
+                earliest = new int[]{position, token.length()};
+            }
+        }
+        return earliest;
+    }
+
+    private static String window(String text, int position, int length) {
+        int start = Math.max(0, position - CONTEXT_LENGTH);
+        int end = Math.min(text.length(), position + length + CONTEXT_LENGTH);
+
+        StringBuilder snippet = new StringBuilder();
+        if (start > 0) {
+            snippet.append(ELLIPSIS);
+        }
+        snippet.append(text, start, end);
+        if (end < text.length()) {
+            snippet.append(ELLIPSIS);
+        }
+        return snippet.toString();
+    }
+}
@@ -0,0 +1,317 @@
+package com.booklog.service;
+
+import com.booklog.entity.Book;
+import com.booklog.entity.BookImportJob;
+import com.booklog.entity.BookImportJob.ImportFormat;
+import com.booklog.entity.BookImportJob.ImportStatus;
+import com.booklog.event.BookChangedEvent;
+import com.booklog.event.ChangeType;
+import com.booklog.exception.ResourceNotFoundException;
+import com.booklog.importer.BookRecordReader;
+import com.booklog.importer.CsvBookRecordReader;
+import com.booklog.importer.JsonLinesBookRecordReader;
+import com.booklog.repository.BookBulkRepository;
+import com.booklog.repository.BookImportJobRepository;
+import com.booklog.util.IsbnUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Streams catalog files into the books table.
+ * <p>
+ * The upload is spooled to {@code booklog.import.dir} and read one record at a time. Records are
+ * grouped into chunks of {@code booklog.import.chunk-size}; each chunk is deduplicated by canonical
+ * ISBN, matched against existing books with one query, and written with JDBC batches in its own
+ * transaction together with the job's progress. A failed or interrupted job resumes by skipping
+ * the records already committed. Jobs run one at a time because SQLite has a single writer.
+ */
+@Service
+public class BookImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookImportService.class);
+
+    private final BookImportJobRepository jobRepository;
+    private final BookBulkRepository bookBulkRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Path importDir;
+    private final int chunkSize;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "book-import"));
+
+    public BookImportService(BookImportJobRepository jobRepository,
+                             BookBulkRepository bookBulkRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${booklog.import.dir:imports}") String importDir,
+                             @Value("${booklog.import.chunk-size:1000}") int chunkSize) {
+        this.jobRepository = jobRepository;
+        this.bookBulkRepository = bookBulkRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.importDir = Paths.get(importDir);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Spools the input to disk and queues an import job for it.
+     */
+    public BookImportJob startImport(Long userId, ImportFormat format, String fileName, InputStream input)
+            throws IOException {
+        Files.createDirectories(importDir);
+        Path storagePath = importDir.resolve("import-" + UUID.randomUUID() + "." + format.name().toLowerCase());
+        Files.copy(input, storagePath);
+
+        BookImportJob job = BookImportJob.builder()
+                .userId(userId)
+                .fileName(fileName)
+                .storagePath(storagePath.toString())
+                .format(format)
+                .status(ImportStatus.PENDING)
+                .build();
+        job = jobRepository.save(job);
+
+        submit(job.getId());
+        return job;
+    }
+
+    public BookImportJob getImport(Long userId, Long jobId) {
+        return jobRepository.findByIdAndUserId(jobId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("BookImportJob", "id", jobId));
+    }
+
+    /**
+     * Re-queues a failed job; it continues after the last committed chunk.
+     */
+    public BookImportJob resumeImport(Long userId, Long jobId) {
+        BookImportJob job = getImport(userId, jobId);
+        if (job.getStatus() != ImportStatus.FAILED) {
+            throw new IllegalArgumentException("Only failed imports can be resumed");
+        }
+
+        job.setStatus(ImportStatus.PENDING);
+        job.setErrorMessage(null);
+        job = jobRepository.save(job);
+
+        submit(job.getId());
+        return job;
+    }
+
+    // Jobs that were queued or running when the server stopped continue from their checkpoint
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedImports() {
+        for (ImportStatus status : List.of(ImportStatus.RUNNING, ImportStatus.PENDING)) {
+            for (BookImportJob job : jobRepository.findByStatus(status)) {
+                log.info("Resuming import {} after {} rows", job.getId(), job.getProcessedRows());
+                submit(job.getId());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void submit(Long jobId) {
+        executor.submit(() -> run(jobId));
+    }
+
+    private void run(Long jobId) {
+        BookImportJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() == ImportStatus.COMPLETED) {
+            return;
+        }
+
+        job.setStatus(ImportStatus.RUNNING);
+        if (job.getStartedAt() == null) {
+            job.setStartedAt(LocalDateTime.now());
+        }
+        job = jobRepository.save(job);
+
+        long start = System.currentTimeMillis();
+        try (BookRecordReader reader = openReader(job)) {
+            skipCommittedRecords(reader, job.getProcessedRows());
+
+            List<Book> records = new ArrayList<>(chunkSize);
+            while (!Thread.currentThread().isInterrupted()) {
+                records.clear();
+                int read = 0;
+                int invalid = 0;
+                while (read < chunkSize) {
+                    try {
+                        Book book = reader.next();
+                        if (book == null) {
+                            break;
+                        }
+                        records.add(book);
+                    } catch (IllegalArgumentException e) {
+                        log.debug("Import {}: {}", jobId, e.getMessage());
+                        invalid++;
+                    }
+                    read++;
+                }
+                if (read == 0) {
+                    break;
+                }
+
+                BookImportJob current = job;
+                int chunkRows = read;
+                int chunkInvalid = invalid;
+                job = transactionTemplate.execute(status -> writeChunk(current, records, chunkRows, chunkInvalid));
+                log.debug("Import {}: {} rows processed", jobId, job.getProcessedRows());
+            }
+
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            job.setStatus(ImportStatus.COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+            jobRepository.save(job);
+            Files.deleteIfExists(Paths.get(job.getStoragePath()));
+
+            log.info("Import {} completed in {} ms: {} inserted, {} updated, {} unchanged, {} skipped",
+                    jobId, System.currentTimeMillis() - start, job.getInsertedCount(), job.getUpdatedCount(),
+                    job.getUnchangedCount(), job.getSkippedCount());
+        } catch (Exception e) {
+            log.error("Import {} failed after {} rows", jobId, job.getProcessedRows(), e);
+            job.setStatus(ImportStatus.FAILED);
+            job.setErrorMessage(e.getMessage());
+            jobRepository.save(job);
+        }
+    }
+
+    private BookImportJob writeChunk(BookImportJob job, List<Book> records, int rows, int invalid) {
+        // Later rows win when the same ISBN appears twice in a chunk
+        Map<String, Book> incoming = new LinkedHashMap<>();
+        long skipped = invalid;
+        for (Book book : records) {
+            String isbn = IsbnUtils.canonical(book.getIsbn13(), book.getIsbn10());
+            if (isbn == null || book.getTitle() == null) {
+                skipped++;
+                continue;
+            }
+            book.setIsbn(isbn);
+            if (incoming.put(isbn, book) != null) {
+                skipped++;
+            }
+        }
+
+        Map<String, Book> existing = bookBulkRepository.findByIsbns(incoming.keySet());
+        List<Book> inserts = new ArrayList<>();
+        List<Book> updates = new ArrayList<>();
+        long unchanged = 0;
+        for (Map.Entry<String, Book> entry : incoming.entrySet()) {
+            Book current = existing.get(entry.getKey());
+            if (current == null) {
+                inserts.add(entry.getValue());
+            } else if (merge(current, entry.getValue())) {
+                updates.add(current);
+            } else {
+                unchanged++;
+            }
+        }
+
+        bookBulkRepository.insert(inserts);
+        bookBulkRepository.update(updates);
+        inserts.forEach(book -> eventPublisher.publishEvent(new BookChangedEvent(book, ChangeType.CREATED)));
+        updates.forEach(book -> eventPublisher.publishEvent(new BookChangedEvent(book, ChangeType.UPDATED)));
+
+        job.setProcessedRows(job.getProcessedRows() + rows);
+        job.setInsertedCount(job.getInsertedCount() + inserts.size());
+        job.setUpdatedCount(job.getUpdatedCount() + updates.size());
+        job.setUnchangedCount(job.getUnchangedCount() + unchanged);
+        job.setSkippedCount(job.getSkippedCount() + skipped);
+        return jobRepository.save(job);
+    }
+
+    private BookRecordReader openReader(BookImportJob job) throws IOException {
+        Reader reader = Files.newBufferedReader(Paths.get(job.getStoragePath()), StandardCharsets.UTF_8);
+        try {
+            return job.getFormat() == ImportFormat.CSV
+                    ? new CsvBookRecordReader(reader)
+                    : new JsonLinesBookRecordReader(reader, objectMapper);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    private static void skipCommittedRecords(BookRecordReader reader, long count) throws IOException {
+        for (long i = 0; i < count; i++) {
+            try {
+                if (reader.next() == null) {
+                    return;
+                }
+            } catch (IllegalArgumentException e) {
+                // Invalid records were counted when they were first read
+            }
+        }
+    }
+
+    /**
+     * Copies the non-empty fields of an imported record onto the stored book.
+     * Returns true if anything changed.
+     */
+    private static boolean merge(Book target, Book source) {
+        boolean changed = false;
+        changed |= mergeField(target.getTitle(), source.getTitle(), target::setTitle);
+        changed |= mergeField(target.getSubtitle(), source.getSubtitle(), target::setSubtitle);
+        changed |= mergeField(target.getPublisher(), source.getPublisher(), target::setPublisher);
+        changed |= mergeField(target.getPublishedDate(), source.getPublishedDate(), target::setPublishedDate);
+        changed |= mergeField(target.getDescription(), source.getDescription(), target::setDescription);
+        changed |= mergeField(target.getPageCount(), source.getPageCount(), target::setPageCount);
+        changed |= mergeField(target.getThumbnail(), source.getThumbnail(), target::setThumbnail);
+        changed |= mergeField(target.getLanguage(), source.getLanguage(), target::setLanguage);
+        changed |= mergeField(target.getIsbn10(), source.getIsbn10(), target::setIsbn10);
+        changed |= mergeField(target.getIsbn13(), source.getIsbn13(), target::setIsbn13);
+        changed |= mergeField(target.getAverageRating(), source.getAverageRating(), target::setAverageRating);
+        changed |= mergeField(target.getRatingsCount(), source.getRatingsCount(), target::setRatingsCount);
+        changed |= mergeField(target.getPreviewLink(), source.getPreviewLink(), target::setPreviewLink);
+        changed |= mergeField(target.getInfoLink(), source.getInfoLink(), target::setInfoLink);
+        if (!source.getAuthors().isEmpty()) {
+            changed |= mergeField(target.getAuthors(), source.getAuthors(), target::setAuthors);
+        }
+        if (!source.getCategories().isEmpty()) {
+            changed |= mergeField(target.getCategories(), source.getCategories(), target::setCategories);
+        }
+        return changed;
+    }
+
+    private static <T> boolean mergeField(T current, T imported, Consumer<T> setter) {
+        if (imported == null || Objects.equals(current, imported)) {
+            return false;
+        }
+        setter.accept(imported);
+        return true;
+    }
+}
@@ -1,42 +1,142 @@
 package com.booklog.service;
 
+import com.booklog.dto.BookSuggestion;
+import com.booklog.dto.CursorPage;
+import com.booklog.dto.FacetedBookPage;
 import com.booklog.entity.Book;
+import com.booklog.event.BookChangedEvent;
+import com.booklog.event.ChangeType;
 import com.booklog.exception.ResourceNotFoundException;
+import com.booklog.exception.ServiceUnavailableException;
 import com.booklog.repository.BookRepository;
+import com.booklog.search.BookFacetIndex;
+import com.booklog.search.BookFacetIndex.Facet;
+import com.booklog.search.BookSearchIndex;
+import com.booklog.search.BookSuggestIndex;
+import com.booklog.search.InvertedIndex;
+import com.booklog.search.IsbnIndex;
+import com.booklog.search.PopularBooksLeaderboard;
+import com.booklog.util.CursorCodec;
+import com.booklog.util.IsbnUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BookService {
 
+    private static final int MAX_POPULAR_BOOKS = 50;
+
     private final BookRepository bookRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookSuggestIndex bookSuggestIndex;
+    private final BookFacetIndex bookFacetIndex;
+    private final IsbnIndex isbnIndex;
+    private final PopularBooksLeaderboard popularBooksLeaderboard;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public BookService(BookRepository bookRepository) {
+    public BookService(BookRepository bookRepository,
+                       BookSearchIndex bookSearchIndex,
+                       BookSuggestIndex bookSuggestIndex,
+                       BookFacetIndex bookFacetIndex,
+                       IsbnIndex isbnIndex,
+                       PopularBooksLeaderboard popularBooksLeaderboard,
+                       ApplicationEventPublisher eventPublisher) {
         this.bookRepository = bookRepository;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookSuggestIndex = bookSuggestIndex;
+        this.bookFacetIndex = bookFacetIndex;
+        this.isbnIndex = isbnIndex;
+        this.popularBooksLeaderboard = popularBooksLeaderboard;
+        this.eventPublisher = eventPublisher;
     }
 
     public Page<Book> getAllBooks(Pageable pageable) {
         return bookRepository.findAll(pageable);
     }
 
+    /**
+     * Returns books in id order using keyset pagination, without a count query.
+     */
+    public CursorPage<Book> scrollBooks(String cursor, int size) {
+        long afterId = cursor != null ? CursorCodec.decode(cursor).id() : 0L;
+        return CursorPage.of(
+                bookRepository.findByIdGreaterThanOrderByIdAsc(afterId, CursorPage.request(size)),
+                book -> CursorCodec.encode(book.getId(), book.getId()));
+    }
+
     public Book getBookById(Long id) {
         return bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book", "id", id));
     }
 
     public Book getBookByIsbn(String isbn) {
-        // Try to find by ISBN13 first
-        return bookRepository.findByIsbn13(isbn)
-                .orElseGet(() -> bookRepository.findByIsbn10(isbn)
-                        .orElseThrow(() -> new ResourceNotFoundException("Book", "isbn", isbn)));
+        // ISBN-10 and ISBN-13 both resolve to the same canonical ISBN-13
+        String canonicalIsbn = IsbnUtils.normalize(isbn);
+        if (canonicalIsbn == null) {
+            throw new ResourceNotFoundException("Book", "isbn", isbn);
+        }
+        
+        Long bookId = isbnIndex.findBookId(canonicalIsbn);
+        Optional<Book> book = bookId != null
+                ? bookRepository.findById(bookId)
+                : bookRepository.findByIsbn(canonicalIsbn);
+        
+        return book.orElseThrow(() -> new ResourceNotFoundException("Book", "isbn", isbn));
+    }
+
+    /**
+     * Resolves many ISBNs with a single IN query, keyed by canonical ISBN-13.
+     * Invalid ISBNs are skipped.
+     */
+    public Map<String, Book> getBooksByIsbns(Collection<String> isbns) {
+        Set<String> canonicalIsbns = isbns.stream()
+                .map(IsbnUtils::normalize)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        
+        if (canonicalIsbns.isEmpty()) {
+            return Map.of();
+        }
+        
+        return bookRepository.findByIsbnIn(canonicalIsbns).stream()
+                .collect(Collectors.toMap(Book::getIsbn, Function.identity()));
     }
 
     public Page<Book> searchBooks(String query, Pageable pageable) {
-        return bookRepository.searchBooks(query, pageable);
+        // Queries too short to produce an n-gram fall back to the LIKE scan
+        if (!bookSearchIndex.canSearch(query)) {
+            return bookRepository.searchBooks(query, pageable);
+        }
+
+        // Results are ordered by relevance, so any sort in the pageable is ignored
+        // Only ranks as many books as the pages up to this one hold
+        int limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        InvertedIndex.Hits<Long> hits = bookSearchIndex.search(query, limit);
+        List<Long> rankedIds = hits.matches().stream().map(InvertedIndex.Match::key).toList();
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        return loadPage(rankedIds.subList(from, rankedIds.size()), pageable, hits.total());
+    }
+
+    public List<BookSuggestion> suggestBooks(String prefix, int limit) {
+        return bookSuggestIndex.suggest(prefix, limit);
+    }
+
+    public Map<String, Object> getSuggestIndexStats() {
+        return bookSuggestIndex.getStats();
     }
 
     public Page<Book> findBooksByFilters(String title, String author, String publisher, 
@@ -44,28 +144,75 @@ public class BookService {
         return bookRepository.findByFilters(title, author, publisher, category, language, pageable);
     }
 
+    public FacetedBookPage findBooksWithFacets(List<String> categories, List<String> languages,
+                                               List<String> publishers, Pageable pageable) {
+        Map<Facet, List<String>> selections = new EnumMap<>(Facet.class);
+        selections.put(Facet.CATEGORY, categories);
+        selections.put(Facet.LANGUAGE, languages);
+        selections.put(Facet.PUBLISHER, publishers);
+
+        // Counts come only from the index, so there is nothing to serve until it is built at startup
+        if (!bookFacetIndex.isReady()) {
+            throw new ServiceUnavailableException("Book facets are still loading");
+        }
+
+        // Matches are returned newest first, so any sort in the pageable is ignored
+        BookFacetIndex.Result result = bookFacetIndex.query(selections);
+        Page<Book> books = loadPage(result.pageIds(pageable.getOffset(), pageable.getPageSize()),
+                pageable, result.matches().getCardinality());
+
+        return new FacetedBookPage(books, result.counts());
+    }
+
     public List<Book> getPopularBooks() {
-        return bookRepository.findTop10ByOrderByAverageRatingDesc();
+        return getPopularBooks(null, null, 10);
+    }
+
+    /**
+     * Returns the top books by Bayesian-weighted rating, optionally within a category and/or language.
+     */
+    public List<Book> getPopularBooks(String category, String language, int limit) {
+        if (limit < 1 || limit > MAX_POPULAR_BOOKS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_POPULAR_BOOKS);
+        }
+
+        List<Long> ids = popularBooksLeaderboard.top(blankToNull(category), blankToNull(language), limit);
+        return loadPage(ids, Pageable.unpaged(), ids.size()).getContent();
     }
 
     @Transactional
     public Book createBook(Book book) {
         // Check if book with the same ISBN already exists
-        if (book.getIsbn13() != null && bookRepository.findByIsbn13(book.getIsbn13()).isPresent()) {
-            throw new IllegalArgumentException("Book with ISBN13 " + book.getIsbn13() + " already exists");
+        String canonicalIsbn = IsbnUtils.canonical(book.getIsbn13(), book.getIsbn10());
+        if (canonicalIsbn != null && isIsbnTaken(canonicalIsbn)) {
+            throw new IllegalArgumentException("Book with ISBN " + canonicalIsbn + " already exists");
         }
         
-        if (book.getIsbn10() != null && bookRepository.findByIsbn10(book.getIsbn10()).isPresent()) {
-            throw new IllegalArgumentException("Book with ISBN10 " + book.getIsbn10() + " already exists");
-        }
-        
-        return bookRepository.save(book);
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookChangedEvent(savedBook, ChangeType.CREATED));
+        return savedBook;
     }
 
     @Transactional
     public Book updateBook(Long id, Book bookDetails) {
         Book book = getBookById(id);
         
+        // Check the new ISBN before any field is changed, so the probe does not flush this book
+        String canonicalIsbn = IsbnUtils.canonical(
+                bookDetails.getIsbn13() != null ? bookDetails.getIsbn13() : book.getIsbn13(),
+                bookDetails.getIsbn10() != null ? bookDetails.getIsbn10() : book.getIsbn10());
+        // A duplicate keeps its taken ISBN unindexed, until it is changed to a free one
+        boolean duplicate = Boolean.TRUE.equals(book.getIsbnDuplicate());
+        String currentIsbn = duplicate ? IsbnUtils.canonical(book.getIsbn13(), book.getIsbn10()) : book.getIsbn();
+        if (canonicalIsbn != null && !canonicalIsbn.equals(currentIsbn)) {
+            if (isIsbnTaken(canonicalIsbn)) {
+                throw new IllegalArgumentException("Book with ISBN " + canonicalIsbn + " already exists");
+            }
+            if (duplicate) {
+                book.setIsbnDuplicate(false);
+            }
+        }
+        
         // Update fields
         if (bookDetails.getTitle() != null) {
             book.setTitle(bookDetails.getTitle());
@@ -131,12 +278,35 @@ public class BookService {
             book.setInfoLink(bookDetails.getInfoLink());
         }
         
-        return bookRepository.save(book);
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookChangedEvent(savedBook, ChangeType.UPDATED));
+        return savedBook;
     }
 
     @Transactional
     public void deleteBook(Long id) {
         Book book = getBookById(id);
         bookRepository.delete(book);
+        eventPublisher.publishEvent(new BookChangedEvent(book, ChangeType.DELETED));
+    }
+
+    private boolean isIsbnTaken(String canonicalIsbn) {
+        return isbnIndex.findBookId(canonicalIsbn) != null || bookRepository.existsByIsbn(canonicalIsbn);
+    }
+
+    private Page<Book> loadPage(List<Long> pageIds, Pageable pageable, long total) {
+        Map<Long, Book> booksById = bookRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+        List<Book> books = pageIds.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new PageImpl<>(books, pageable, total);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
     }
 }
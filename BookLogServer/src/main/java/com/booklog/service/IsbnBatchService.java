@@ -0,0 +1,51 @@
+package com.booklog.service;
+
+import com.booklog.dto.IsbnBatchResult;
+import com.booklog.entity.Book;
+import com.booklog.entity.LibraryBook;
+import com.booklog.entity.LibraryBook.BookStatus;
+import com.booklog.util.IsbnUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class IsbnBatchService {
+
+    private final BookService bookService;
+    private final LibraryBookService libraryBookService;
+
+    public IsbnBatchService(BookService bookService, LibraryBookService libraryBookService) {
+        this.bookService = bookService;
+        this.libraryBookService = libraryBookService;
+    }
+
+    /**
+     * Resolves scanned ISBNs in one query and returns one result per input, in input order.
+     * If a status is given, every hit not yet in the user's library is added in a single transaction.
+     */
+    public List<IsbnBatchResult> resolveIsbns(Long userId, List<String> isbns, BookStatus addWithStatus) {
+        Map<String, Book> booksByIsbn = bookService.getBooksByIsbns(isbns);
+        
+        Map<Long, LibraryBook> added = addWithStatus != null
+                ? libraryBookService.addBooksToLibrary(userId, booksByIsbn.values(), addWithStatus)
+                : Map.of();
+        
+        List<IsbnBatchResult> results = new ArrayList<>(isbns.size());
+        for (String isbn : isbns) {
+            String canonicalIsbn = IsbnUtils.normalize(isbn);
+            Book book = canonicalIsbn != null ? booksByIsbn.get(canonicalIsbn) : null;
+            
+            Boolean addedToLibrary = null;
+            if (addWithStatus != null && book != null) {
+                addedToLibrary = added.containsKey(book.getId());
+            }
+            
+            results.add(new IsbnBatchResult(isbn, book != null, book, addedToLibrary));
+        }
+        
+        return results;
+    }
+}
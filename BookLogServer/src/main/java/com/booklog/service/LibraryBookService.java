@@ -1,20 +1,41 @@
 package com.booklog.service;
 
+import com.booklog.dto.CursorPage;
+import com.booklog.dto.FacetCount;
+import com.booklog.dto.LibraryBulkResult;
+import com.booklog.dto.LibraryBulkResult.Outcome;
+import com.booklog.dto.LibraryStatsSummary;
 import com.booklog.entity.Book;
 import com.booklog.entity.LibraryBook;
 import com.booklog.entity.LibraryBook.BookStatus;
 import com.booklog.entity.User;
+import com.booklog.event.BookRatingChangedEvent;
 import com.booklog.exception.ResourceNotFoundException;
 import com.booklog.repository.LibraryBookRepository;
+import com.booklog.search.LibraryTagIndex;
+import com.booklog.util.CursorCodec;
+import com.booklog.util.CursorCodec.Cursor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,34 +44,112 @@ public class LibraryBookService {
     private final LibraryBookRepository libraryBookRepository;
     private final UserService userService;
     private final BookService bookService;
+    private final LibraryStatsService libraryStatsService;
+    private final LibraryCounterService libraryCounterService;
+    private final LibraryTagIndex libraryTagIndex;
+    private final LibraryProgressBuffer progressBuffer;
+    private final RecentlyReadCache recentlyReadCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public LibraryBookService(LibraryBookRepository libraryBookRepository, 
                               UserService userService,
-                              BookService bookService) {
+                              BookService bookService,
+                              LibraryStatsService libraryStatsService,
+                              LibraryCounterService libraryCounterService,
+                              LibraryTagIndex libraryTagIndex,
+                              LibraryProgressBuffer progressBuffer,
+                              RecentlyReadCache recentlyReadCache,
+                              ApplicationEventPublisher eventPublisher) {
         this.libraryBookRepository = libraryBookRepository;
         this.userService = userService;
         this.bookService = bookService;
+        this.libraryStatsService = libraryStatsService;
+        this.libraryCounterService = libraryCounterService;
+        this.libraryTagIndex = libraryTagIndex;
+        this.progressBuffer = progressBuffer;
+        this.recentlyReadCache = recentlyReadCache;
+        this.eventPublisher = eventPublisher;
     }
 
     public Page<LibraryBook> getUserLibrary(Long userId, Pageable pageable) {
         User user = userService.getUserById(userId);
-        return libraryBookRepository.findByUser(user, pageable);
+        Page<LibraryBook> page = libraryBookRepository.findByUser(user, pageable);
+        progressBuffer.overlay(page.getContent());
+        return page;
     }
 
-    public Page<LibraryBook> getUserLibraryByStatus(Long userId, BookStatus status, Pageable pageable) {
+    /**
+     * Returns the user's library newest first using keyset pagination, without a count query.
+     */
+    public CursorPage<LibraryBook> scrollUserLibrary(Long userId, String cursor, int size) {
         User user = userService.getUserById(userId);
-        return libraryBookRepository.findByUserAndStatus(user, status, pageable);
+        Pageable pageable = CursorPage.request(size);
+        
+        Slice<LibraryBook> slice;
+        if (cursor == null) {
+            slice = libraryBookRepository.findByUserOrderByAddedDateDescIdDesc(user, pageable);
+        } else {
+            Cursor position = CursorCodec.decode(cursor);
+            slice = libraryBookRepository.findByUserAfterCursor(user, position.dateKey(), position.id(), pageable);
+        }
+        progressBuffer.overlay(slice.getContent());
+        
+        return CursorPage.of(slice, libraryBook -> CursorCodec.encode(libraryBook.getAddedDate(), libraryBook.getId()));
     }
 
-    public Page<LibraryBook> getUserLibraryByStatusAndTag(Long userId, BookStatus status, String tag, Pageable pageable) {
+    public Page<LibraryBook> getUserLibraryByStatus(Long userId, BookStatus status, Pageable pageable) {
         User user = userService.getUserById(userId);
-        return libraryBookRepository.findByUserAndStatusAndTag(user, status, tag, pageable);
+        Page<LibraryBook> page = libraryBookRepository.findByUserAndStatus(user, status, pageable);
+        progressBuffer.overlay(page.getContent());
+        return page;
+    }
+
+    /**
+     * Filters the user's library by status and tags with the in-memory tag index.
+     * Entries must have all of allTags, at least one of anyTags if given, and none of noneTags.
+     * Results are ordered most recently added first.
+     */
+    public Page<LibraryBook> getUserLibraryByTags(Long userId, BookStatus status, List<String> allTags,
+                                                  List<String> anyTags, List<String> noneTags, Pageable pageable) {
+        LibraryTagIndex.Result result = libraryTagIndex.query(userId, status, allTags, anyTags, noneTags);
+        List<Long> ids = result.pageIds(pageable.getOffset(), pageable.getPageSize());
+        
+        Map<Long, LibraryBook> libraryBooks = libraryBookRepository.findByUserIdAndIdIn(userId, ids).stream()
+                .collect(Collectors.toMap(LibraryBook::getId, Function.identity()));
+        List<LibraryBook> content = ids.stream()
+                .map(libraryBooks::get)
+                .filter(Objects::nonNull)
+                .toList();
+        progressBuffer.overlay(content);
+        return new PageImpl<>(content, pageable, result.total());
+    }
+
+    /**
+     * Counts the user's entries under each tag, optionally within one status. Most used tags first.
+     */
+    public List<FacetCount> getTagCounts(Long userId, BookStatus status) {
+        LibraryTagIndex.Result within = status != null
+                ? libraryTagIndex.query(userId, status, null, null, null)
+                : null;
+        return libraryTagIndex.countTags(userId, within != null ? within.matches() : null);
     }
 
     public LibraryBook getUserLibraryBook(Long userId, Long bookId) {
         User user = userService.getUserById(userId);
-        return libraryBookRepository.findByUserAndBookId(user, bookId)
+        LibraryBook libraryBook = libraryBookRepository.findByUserAndBookId(user, bookId)
                 .orElseThrow(() -> new ResourceNotFoundException("LibraryBook", "bookId", bookId));
+        progressBuffer.overlay(List.of(libraryBook));
+        return libraryBook;
+    }
+
+    // Takes over buffered progress before reading, so a later flush cannot overwrite this write
+    private LibraryBook getUserLibraryBookForUpdate(Long userId, Long bookId) {
+        LibraryProgressBuffer.PendingProgress pending = progressBuffer.take(userId, bookId);
+        LibraryBook libraryBook = getUserLibraryBook(userId, bookId);
+        if (pending != null) {
+            pending.applyTo(libraryBook);
+        }
+        return libraryBook;
     }
 
     public boolean isBookInUserLibrary(Long userId, Long bookId) {
@@ -69,6 +168,55 @@ public class LibraryBookService {
             throw new IllegalArgumentException("Book is already in user's library");
         }
         
+        LibraryBook libraryBook = newLibraryBook(user, book, status);
+        libraryCounterService.initializeCounters(userId, List.of(libraryBook));
+        
+        LibraryBook savedBook = libraryBookRepository.save(libraryBook);
+        libraryStatsService.recordChange(userId, Map.of(), LibraryStatsService.countersOf(savedBook));
+        libraryTagIndex.update(userId, savedBook);
+        recentlyReadCache.update(userId, savedBook);
+        return savedBook;
+    }
+
+    /**
+     * Adds many books to the user's library in one transaction.
+     * Books already in the library are skipped; the result holds only the newly added entries, keyed by book id.
+     */
+    @Transactional
+    public Map<Long, LibraryBook> addBooksToLibrary(Long userId, Collection<Book> books, BookStatus status) {
+        if (books.isEmpty()) {
+            return Map.of();
+        }
+        
+        User user = userService.getUserById(userId);
+        Set<Long> skippedBookIds = new HashSet<>(libraryBookRepository.findBookIdsInLibrary(
+                user, books.stream().map(Book::getId).toList()));
+        
+        // Set.add also drops duplicates within the batch
+        List<LibraryBook> newBooks = books.stream()
+                .filter(book -> skippedBookIds.add(book.getId()))
+                .map(book -> newLibraryBook(user, book, status))
+                .toList();
+        
+        libraryCounterService.initializeCounters(userId, newBooks);
+        List<LibraryBook> savedBooks = libraryBookRepository.saveAll(newBooks);
+        
+        Map<String, Long> statsDelta = new HashMap<>();
+        savedBooks.forEach(libraryBook ->
+                LibraryStatsService.accumulate(statsDelta, Map.of(), LibraryStatsService.countersOf(libraryBook)));
+        if (!savedBooks.isEmpty()) {
+            libraryStatsService.recordChanges(userId, statsDelta);
+        }
+        savedBooks.forEach(libraryBook -> {
+            libraryTagIndex.update(userId, libraryBook);
+            recentlyReadCache.update(userId, libraryBook);
+        });
+        
+        return savedBooks.stream()
+                .collect(Collectors.toMap(libraryBook -> libraryBook.getBook().getId(), Function.identity()));
+    }
+
+    private LibraryBook newLibraryBook(User user, Book book, BookStatus status) {
         LibraryBook libraryBook = LibraryBook.builder()
                 .user(user)
                 .book(book)
@@ -89,13 +237,23 @@ public class LibraryBookService {
             libraryBook.setProgress(100);
         }
         
-        return libraryBookRepository.save(libraryBook);
+        return libraryBook;
     }
 
     @Transactional
     public LibraryBook updateBookStatus(Long userId, Long bookId, BookStatus status, Integer progress) {
-        LibraryBook libraryBook = getUserLibraryBook(userId, bookId);
+        LibraryBook libraryBook = getUserLibraryBookForUpdate(userId, bookId);
+        Map<String, Long> before = LibraryStatsService.countersOf(libraryBook);
+        applyStatus(libraryBook, status, progress);
         
+        LibraryBook savedBook = libraryBookRepository.save(libraryBook);
+        libraryStatsService.recordChange(userId, before, LibraryStatsService.countersOf(savedBook));
+        libraryTagIndex.update(userId, savedBook);
+        recentlyReadCache.update(userId, savedBook);
+        return savedBook;
+    }
+
+    private void applyStatus(LibraryBook libraryBook, BookStatus status, Integer progress) {
         // Update status
         libraryBook.setStatus(status);
         
@@ -117,14 +275,39 @@ public class LibraryBookService {
         
         // Update last read date
         libraryBook.setLastReadDate(LocalDate.now());
-        
-        return libraryBookRepository.save(libraryBook);
     }
 
     @Transactional
     public LibraryBook updateBookProgress(Long userId, Long bookId, Integer progress) {
-        LibraryBook libraryBook = getUserLibraryBook(userId, bookId);
+        LibraryBook libraryBook = getUserLibraryBookForUpdate(userId, bookId);
+        Map<String, Long> before = LibraryStatsService.countersOf(libraryBook);
+        applyProgress(libraryBook, progress);
         
+        LibraryBook savedBook = libraryBookRepository.save(libraryBook);
+        libraryStatsService.recordChange(userId, before, LibraryStatsService.countersOf(savedBook));
+        libraryTagIndex.update(userId, savedBook);
+        recentlyReadCache.update(userId, savedBook);
+        return savedBook;
+    }
+
+    /**
+     * Buffers a progress ping instead of writing it. Returns false, without buffering, for 100%,
+     * which changes the status and must go through updateBookProgress right away.
+     */
+    public boolean bufferBookProgress(Long userId, Long bookId, int progress) {
+        if (progress >= 100) {
+            return false;
+        }
+        if (!progressBuffer.isPending(userId, bookId) && !libraryBookRepository.existsByUserIdAndBookId(userId, bookId)) {
+            throw new ResourceNotFoundException("LibraryBook", "bookId", bookId);
+        }
+        
+        progressBuffer.offer(userId, bookId, progress);
+        recentlyReadCache.touch(userId, bookId);
+        return true;
+    }
+
+    private void applyProgress(LibraryBook libraryBook, Integer progress) {
         // Update progress
         libraryBook.setProgress(progress);
         
@@ -136,62 +319,246 @@ public class LibraryBookService {
             libraryBook.setStatus(BookStatus.FINISHED);
             libraryBook.setFinishDate(LocalDate.now());
         }
-        
-        return libraryBookRepository.save(libraryBook);
     }
 
     @Transactional
     public LibraryBook updateBookRating(Long userId, Long bookId, Integer rating, String review) {
-        LibraryBook libraryBook = getUserLibraryBook(userId, bookId);
+        LibraryBook libraryBook = getUserLibraryBookForUpdate(userId, bookId);
         
         // Update rating and review
+        Integer previousRating = libraryBook.getUserRating();
         libraryBook.setUserRating(rating);
         if (review != null) {
             libraryBook.setUserReview(review);
         }
         
-        return libraryBookRepository.save(libraryBook);
+        LibraryBook savedBook = libraryBookRepository.save(libraryBook);
+        eventPublisher.publishEvent(new BookRatingChangedEvent(libraryBook.getBook().getId(), previousRating, rating));
+        return savedBook;
     }
 
     @Transactional
     public LibraryBook updateBookTags(Long userId, Long bookId, List<String> tags) {
-        LibraryBook libraryBook = getUserLibraryBook(userId, bookId);
+        LibraryBook libraryBook = getUserLibraryBookForUpdate(userId, bookId);
+        Map<String, Long> before = LibraryStatsService.countersOf(libraryBook);
         
         // Update tags
         libraryBook.setTags(tags.stream().collect(Collectors.toSet()));
+        // Collection changes alone do not update the row, which entity listeners rely on
+        libraryBook.setUpdatedAt(LocalDateTime.now());
         
-        return libraryBookRepository.save(libraryBook);
+        LibraryBook savedBook = libraryBookRepository.save(libraryBook);
+        libraryStatsService.recordChange(userId, before, LibraryStatsService.countersOf(savedBook));
+        libraryTagIndex.update(userId, savedBook);
+        return savedBook;
     }
 
     @Transactional
     public LibraryBook toggleFavorite(Long userId, Long bookId) {
-        LibraryBook libraryBook = getUserLibraryBook(userId, bookId);
+        LibraryBook libraryBook = getUserLibraryBookForUpdate(userId, bookId);
+        Map<String, Long> before = LibraryStatsService.countersOf(libraryBook);
         
         // Toggle favorite status
         libraryBook.setFavorite(!libraryBook.isFavorite());
         
-        return libraryBookRepository.save(libraryBook);
+        LibraryBook savedBook = libraryBookRepository.save(libraryBook);
+        libraryStatsService.recordChange(userId, before, LibraryStatsService.countersOf(savedBook));
+        return savedBook;
     }
 
     @Transactional
     public void removeBookFromLibrary(Long userId, Long bookId) {
-        LibraryBook libraryBook = getUserLibraryBook(userId, bookId);
+        LibraryBook libraryBook = getUserLibraryBookForUpdate(userId, bookId);
         libraryBookRepository.delete(libraryBook);
+        libraryStatsService.recordChange(userId, LibraryStatsService.countersOf(libraryBook), Map.of());
+        libraryTagIndex.remove(userId, libraryBook.getId());
+        recentlyReadCache.remove(userId, libraryBook.getId());
+        
+        if (libraryBook.getUserRating() != null) {
+            eventPublisher.publishEvent(new BookRatingChangedEvent(bookId, libraryBook.getUserRating(), null));
+        }
     }
 
-    public Map<BookStatus, Long> getLibraryStats(Long userId) {
+    /**
+     * Applies the same change to many library entries in one transaction.
+     * All entries are loaded with one query and flushed together; ids not in the library are reported as NOT_FOUND.
+     * Status is applied before progress, so an explicit progress wins over the status default.
+     */
+    @Transactional
+    public List<LibraryBulkResult> applyBulkChanges(Long userId, List<Long> bookIds, BookStatus status,
+                                                    Integer progress, List<String> tags, Boolean favorite,
+                                                    boolean remove) {
+        if (remove && (status != null || progress != null || tags != null || favorite != null)) {
+            throw new IllegalArgumentException("remove cannot be combined with other changes");
+        }
+        if (!remove && status == null && progress == null && tags == null && favorite == null) {
+            throw new IllegalArgumentException("No changes requested");
+        }
+        
+        Map<Long, LibraryProgressBuffer.PendingProgress> pendingProgress = new HashMap<>();
+        for (Long bookId : bookIds) {
+            LibraryProgressBuffer.PendingProgress pending = progressBuffer.take(userId, bookId);
+            if (pending != null) {
+                pendingProgress.put(bookId, pending);
+            }
+        }
+        
         User user = userService.getUserById(userId);
-        List<Object[]> stats = libraryBookRepository.countByUserGroupByStatus(user);
+        Map<Long, LibraryBook> libraryBooks = libraryBookRepository.findByUserAndBookIdIn(user, bookIds).stream()
+                .collect(Collectors.toMap(libraryBook -> libraryBook.getBook().getId(), Function.identity()));
+        pendingProgress.forEach((bookId, pending) -> {
+            if (libraryBooks.containsKey(bookId)) {
+                pending.applyTo(libraryBooks.get(bookId));
+            }
+        });
         
-        return stats.stream()
-                .collect(Collectors.toMap(
-                        row -> (BookStatus) row[0],
-                        row -> (Long) row[1]
-                ));
+        List<LibraryBulkResult> results = new ArrayList<>(bookIds.size());
+        List<LibraryBook> changed = new ArrayList<>();
+        Map<String, Long> statsDelta = new HashMap<>();
+        for (Long bookId : new LinkedHashSet<>(bookIds)) {
+            LibraryBook libraryBook = libraryBooks.get(bookId);
+            if (libraryBook == null) {
+                results.add(new LibraryBulkResult(bookId, Outcome.NOT_FOUND, null));
+                continue;
+            }
+            
+            Map<String, Long> before = LibraryStatsService.countersOf(libraryBook);
+            if (remove) {
+                LibraryStatsService.accumulate(statsDelta, before, Map.of());
+                results.add(new LibraryBulkResult(bookId, Outcome.REMOVED, null));
+            } else {
+                if (status != null) {
+                    applyStatus(libraryBook, status, null);
+                }
+                if (progress != null) {
+                    applyProgress(libraryBook, progress);
+                }
+                if (tags != null) {
+                    libraryBook.setTags(new HashSet<>(tags));
+                    libraryBook.setUpdatedAt(LocalDateTime.now());
+                }
+                if (favorite != null) {
+                    libraryBook.setFavorite(favorite);
+                }
+                LibraryStatsService.accumulate(statsDelta, before, LibraryStatsService.countersOf(libraryBook));
+                results.add(new LibraryBulkResult(bookId, Outcome.UPDATED, libraryBook));
+            }
+            changed.add(libraryBook);
+        }
+        
+        if (remove) {
+            libraryBookRepository.deleteAll(changed);
+            for (LibraryBook libraryBook : changed) {
+                libraryTagIndex.remove(userId, libraryBook.getId());
+                recentlyReadCache.remove(userId, libraryBook.getId());
+                if (libraryBook.getUserRating() != null) {
+                    eventPublisher.publishEvent(new BookRatingChangedEvent(
+                            libraryBook.getBook().getId(), libraryBook.getUserRating(), null));
+                }
+            }
+        } else {
+            libraryBookRepository.saveAll(changed);
+            changed.forEach(libraryBook -> {
+                libraryTagIndex.update(userId, libraryBook);
+                recentlyReadCache.update(userId, libraryBook);
+            });
+        }
+        if (!changed.isEmpty()) {
+            libraryStatsService.recordChanges(userId, statsDelta);
+        }
+        return results;
     }
 
-    public List<LibraryBook> getRecentlyReadBooks(Long userId) {
+    /**
+     * Reflects reading sessions on the user's library entries with one update per book: the last
+     * read date moves to the latest session and progress rises to the furthest page read.
+     * Books not in the library are skipped. Must be called before the surrounding transaction
+     * reads anything, since it takes over buffered progress.
+     */
+    @Transactional
+    public void recordReadingActivity(Long userId, Map<Long, ReadingActivity> activityByBook) {
+        if (activityByBook.isEmpty()) {
+            return;
+        }
+        
+        Map<Long, LibraryProgressBuffer.PendingProgress> pendingProgress = new HashMap<>();
+        for (Long bookId : activityByBook.keySet()) {
+            LibraryProgressBuffer.PendingProgress pending = progressBuffer.take(userId, bookId);
+            if (pending != null) {
+                pendingProgress.put(bookId, pending);
+            }
+        }
+        
         User user = userService.getUserById(userId);
-        return libraryBookRepository.findTop5ByUserAndStatusOrderByLastReadDateDesc(user, BookStatus.READING);
+        List<LibraryBook> libraryBooks = libraryBookRepository.findByUserAndBookIdIn(user, activityByBook.keySet());
+        if (libraryBooks.isEmpty()) {
+            return;
+        }
+        
+        Map<String, Long> statsDelta = new HashMap<>();
+        for (LibraryBook libraryBook : libraryBooks) {
+            Long bookId = libraryBook.getBook().getId();
+            LibraryProgressBuffer.PendingProgress pending = pendingProgress.get(bookId);
+            if (pending != null) {
+                pending.applyTo(libraryBook);
+            }
+            Map<String, Long> before = LibraryStatsService.countersOf(libraryBook);
+            
+            ReadingActivity activity = activityByBook.get(bookId);
+            LocalDate lastReadDate = libraryBook.getLastReadDate();
+            Integer pageCount = libraryBook.getBook().getPageCount();
+            if (pageCount != null && pageCount > 0) {
+                int progress = Math.min(100, activity.furthestPage() * 100 / pageCount);
+                if (progress > libraryBook.getProgress()) {
+                    applyProgress(libraryBook, progress);
+                }
+            }
+            if (lastReadDate == null || activity.lastReadDate().isAfter(lastReadDate)) {
+                lastReadDate = activity.lastReadDate();
+            }
+            libraryBook.setLastReadDate(lastReadDate);
+            LibraryStatsService.accumulate(statsDelta, before, LibraryStatsService.countersOf(libraryBook));
+        }
+        
+        libraryBookRepository.saveAll(libraryBooks);
+        libraryStatsService.recordChanges(userId, statsDelta);
+        libraryBooks.forEach(libraryBook -> {
+            libraryTagIndex.update(userId, libraryBook);
+            recentlyReadCache.update(userId, libraryBook);
+        });
+    }
+
+    public Map<BookStatus, Long> getLibraryStats(Long userId) {
+        return libraryStatsService.getStatusCounts(userId);
+    }
+
+    public LibraryStatsSummary getLibraryStatsSummary(Long userId) {
+        return libraryStatsService.getSummary(userId);
+    }
+
+    public List<LibraryBook> getRecentlyReadBooks(Long userId) {
+        userService.getUserById(userId);
+        List<Long> ids = recentlyReadCache.getLibraryBookIds(userId);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, LibraryBook> byId = libraryBookRepository.findByUserIdAndIdIn(userId, ids).stream()
+                .collect(Collectors.toMap(LibraryBook::getId, Function.identity()));
+        List<LibraryBook> libraryBooks = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+        progressBuffer.overlay(libraryBooks);
+        return libraryBooks;
+    }
+
+    /**
+     * Reading done on one book: the date of the latest session and the furthest page reached.
+     */
+    public record ReadingActivity(LocalDate lastReadDate, int furthestPage) {
+
+        public ReadingActivity plus(ReadingActivity other) {
+            return new ReadingActivity(
+                    lastReadDate.isAfter(other.lastReadDate) ? lastReadDate : other.lastReadDate,
+                    Math.max(furthestPage, other.furthestPage));
+        }
     }
 }
@@ -0,0 +1,171 @@
+package com.booklog.service;
+
+import com.booklog.entity.Book;
+import com.booklog.entity.LibraryBook;
+import com.booklog.entity.User;
+import com.booklog.event.ChangeType;
+import com.booklog.event.ReadingHighlightChangedEvent;
+import com.booklog.event.ReadingNoteChangedEvent;
+import com.booklog.event.ReadingSessionChangedEvent;
+import com.booklog.repository.LibraryCounterRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps LibraryBook.notesCount, highlightsCount and readingSessionsCount up to date.
+ * <p>
+ * Note, highlight and session writes only publish events. After commit, each event adds a delta
+ * to an in-memory map keyed by (user, book), so repeated writes to the same book coalesce.
+ * A scheduled flush drains the map and applies all deltas in one JDBC batch. Deltas still pending
+ * at a crash are lost, so the counters are also recomputed from source at startup and nightly.
+ */
+@Service
+public class LibraryCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(LibraryCounterService.class);
+
+    private final LibraryCounterRepository counterRepository;
+    private final VersionStampService versionStampService;
+    private final SyncService syncService;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<CounterKey, CounterDelta> pending = new ConcurrentHashMap<>();
+
+    public LibraryCounterService(LibraryCounterRepository counterRepository,
+                                 VersionStampService versionStampService,
+                                 SyncService syncService,
+                                 PlatformTransactionManager transactionManager) {
+        this.counterRepository = counterRepository;
+        this.versionStampService = versionStampService;
+        this.syncService = syncService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener
+    public void onNoteChanged(ReadingNoteChangedEvent event) {
+        record(event.getNote().getUser(), event.getNote().getBook(), event.getType(), 1, 0, 0);
+    }
+
+    @TransactionalEventListener
+    public void onHighlightChanged(ReadingHighlightChangedEvent event) {
+        record(event.getHighlight().getUser(), event.getHighlight().getBook(), event.getType(), 0, 1, 0);
+    }
+
+    @TransactionalEventListener
+    public void onSessionChanged(ReadingSessionChangedEvent event) {
+        record(event.getSession().getUser(), event.getSession().getBook(), event.getType(), 0, 0, 1);
+    }
+
+    /**
+     * Sets the counters of library entries that are about to be inserted from the existing
+     * notes, highlights and sessions of their books, with a single query.
+     */
+    public void initializeCounters(Long userId, Collection<LibraryBook> libraryBooks) {
+        Map<Long, int[]> counts = counterRepository.countByBook(userId,
+                libraryBooks.stream().map(libraryBook -> libraryBook.getBook().getId()).toList());
+        for (LibraryBook libraryBook : libraryBooks) {
+            int[] bookCounts = counts.getOrDefault(libraryBook.getBook().getId(), new int[3]);
+            libraryBook.setNotesCount(bookCounts[0]);
+            libraryBook.setHighlightsCount(bookCounts[1]);
+            libraryBook.setReadingSessionsCount(bookCounts[2]);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booklog.counters.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<CounterKey, CounterDelta> drained = new HashMap<>();
+        for (CounterKey key : pending.keySet()) {
+            CounterDelta delta = pending.remove(key);
+            if (delta != null && !delta.isZero()) {
+                drained.put(key, delta);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>(drained.size());
+        drained.forEach((key, delta) -> rows.add(new Object[]{
+                delta.notes, delta.highlights, delta.sessions, key.userId(), key.bookId()}));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                counterRepository.applyDeltas(rows);
+                // The counters are part of the synced library entries
+                syncService.recordLibraryBooks(drained.keySet().stream()
+                        .map(key -> new Object[]{key.userId(), key.bookId()})
+                        .toList());
+            });
+            log.debug("Applied counter deltas for {} library entries", rows.size());
+            drained.keySet().stream().map(CounterKey::userId).distinct().forEach(versionStampService::bump);
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply counter deltas, retrying on next flush", e);
+            drained.forEach((key, delta) -> pending.merge(key, delta, CounterDelta::plus));
+        }
+    }
+
+    /**
+     * Recomputes all counters from the notes, highlights and sessions tables.
+     * Pending deltas are dropped because the recount already includes every committed write.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${booklog.counters.repair-cron:0 45 3 * * *}")
+    public synchronized void recountAll() {
+        long start = System.currentTimeMillis();
+        pending.clear();
+        Integer updated = transactionTemplate.execute(status -> counterRepository.recountAll());
+        log.info("Recounted notes/highlights/sessions of {} library entries in {} ms",
+                updated, System.currentTimeMillis() - start);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void record(User user, Book book, ChangeType type, int notes, int highlights, int sessions) {
+        int sign = switch (type) {
+            case CREATED -> 1;
+            case DELETED -> -1;
+            case UPDATED -> 0;
+        };
+        if (sign == 0) {
+            return;
+        }
+
+        pending.merge(new CounterKey(user.getId(), book.getId()),
+                new CounterDelta(sign * notes, sign * highlights, sign * sessions),
+                CounterDelta::plus);
+    }
+
+    private record CounterKey(Long userId, Long bookId) {
+    }
+
+    private record CounterDelta(int notes, int highlights, int sessions) {
+
+        private CounterDelta plus(CounterDelta other) {
+            return new CounterDelta(notes + other.notes, highlights + other.highlights, sessions + other.sessions);
+        }
+
+        private boolean isZero() {
+            return notes == 0 && highlights == 0 && sessions == 0;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.booklog.service;
+
+import com.booklog.dto.LibraryExportRow;
+import com.booklog.repository.LibraryExportRepository;
+import com.booklog.repository.LibraryExportRepository.Position;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams a user's whole library as CSV or newline-delimited JSON.
+ * <p>
+ * Rows are read in keyset chunks of {@value #CHUNK_SIZE}, each in its own short read-only
+ * transaction, and written once that transaction has ended, flushing every {@value #FLUSH_EVERY}
+ * rows. Memory stays constant however large the library is, and a slow client never holds
+ * SQLite's read lock, which in rollback journal mode would keep every writer from committing.
+ * Buffered reading progress is flushed first, since the rows are read straight from the table.
+ */
+@Service
+public class LibraryExportService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int FLUSH_EVERY = 200;
+
+    private static final List<String> CSV_HEADER = List.of("book_id", "title", "authors", "isbn13", "isbn10",
+            "publisher", "page_count", "status", "progress", "rating", "review", "favorite", "tags",
+            "added_date", "start_date", "finish_date", "last_read_date");
+
+    private final LibraryExportRepository libraryExportRepository;
+    private final UserService userService;
+    private final LibraryProgressBuffer progressBuffer;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public LibraryExportService(LibraryExportRepository libraryExportRepository,
+                                UserService userService,
+                                LibraryProgressBuffer progressBuffer,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.libraryExportRepository = libraryExportRepository;
+        this.userService = userService;
+        this.progressBuffer = progressBuffer;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    public enum ExportFormat {
+        CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+        NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson"));
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        ExportFormat(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public static ExportFormat parse(String format) {
+            try {
+                return valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + format);
+            }
+        }
+    }
+
+    /**
+     * Checks that the user exists, so the error surfaces before the response is committed.
+     */
+    public void checkExportable(Long userId) {
+        userService.getUserById(userId);
+    }
+
+    public void writeExport(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        progressBuffer.flush();
+        switch (format) {
+            case CSV -> writeCsv(userId, out);
+            case NDJSON -> writeNdjson(userId, out);
+        }
+    }
+
+    private void writeCsv(Long userId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvLine(writer, CSV_HEADER);
+
+        int[] written = {0};
+        streamRows(userId, row -> {
+            writeCsvLine(writer, List.of(
+                    row.getBookId().toString(),
+                    nullToEmpty(row.getTitle()),
+                    String.join("; ", row.getAuthors()),
+                    nullToEmpty(row.getIsbn13()),
+                    nullToEmpty(row.getIsbn10()),
+                    nullToEmpty(row.getPublisher()),
+                    toText(row.getPageCount()),
+                    row.getStatus().name(),
+                    toText(row.getProgress()),
+                    toText(row.getUserRating()),
+                    nullToEmpty(row.getUserReview()),
+                    Boolean.toString(row.isFavorite()),
+                    String.join("; ", row.getTags()),
+                    toText(row.getAddedDate()),
+                    toText(row.getStartDate()),
+                    toText(row.getFinishDate()),
+                    toText(row.getLastReadDate())));
+            if (++written[0] % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        });
+        writer.flush();
+    }
+
+    private void writeNdjson(Long userId, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            int[] written = {0};
+            streamRows(userId, row -> {
+                generator.writeObject(row);
+                if (++written[0] % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            });
+            generator.writeRaw('\n');
+        }
+    }
+
+    private void streamRows(Long userId, RowWriter rowWriter) throws IOException {
+        List<LibraryExportRow> rows = new ArrayList<>(CHUNK_SIZE);
+        Position after = null;
+        while (true) {
+            Position from = after;
+            rows.clear();
+            after = readOnlyTransactionTemplate.execute(status ->
+                    libraryExportRepository.forEachChunk(userId, from, CHUNK_SIZE, rows::add));
+            // Written outside the transaction, so the connection is released before the client reads
+            for (LibraryExportRow row : rows) {
+                rowWriter.write(row);
+            }
+            if (rows.size() < CHUNK_SIZE) {
+                return;
+            }
+        }
+    }
+
+    private static void writeCsvLine(Writer writer, List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(fields.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String toText(Integer value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static String toText(LocalDate value) {
+        return value != null ? value.toString() : "";
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(LibraryExportRow row) throws IOException;
+    }
+}
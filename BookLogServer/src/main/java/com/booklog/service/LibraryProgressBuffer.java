@@ -0,0 +1,159 @@
+package com.booklog.service;
+
+import com.booklog.entity.LibraryBook;
+import com.booklog.repository.LibraryProgressRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for reading progress.
+ * <p>
+ * Progress pings only replace the pending value of their (user, book), so any number of pings
+ * between two flushes cost one row update. A scheduled flush writes all pending values in one
+ * JDBC batch every {@code booklog.progress.flush-interval-ms}, which bounds what a crash can lose.
+ * Reads overlay pending values on the loaded entries. Other writes to an entry take its pending
+ * value first and apply it themselves; taking waits for a running flush, so a flush never
+ * overwrites a later write.
+ */
+@Service
+public class LibraryProgressBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(LibraryProgressBuffer.class);
+
+    private final LibraryProgressRepository progressRepository;
+    private final SyncService syncService;
+    private final VersionStampService versionStampService;
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<ProgressKey, PendingProgress> pending = new ConcurrentHashMap<>();
+    private volatile Map<ProgressKey, PendingProgress> inFlight = Map.of();
+
+    public LibraryProgressBuffer(LibraryProgressRepository progressRepository,
+                                 SyncService syncService,
+                                 VersionStampService versionStampService,
+                                 UserService userService,
+                                 PlatformTransactionManager transactionManager) {
+        this.progressRepository = progressRepository;
+        this.syncService = syncService;
+        this.versionStampService = versionStampService;
+        this.userService = userService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void offer(Long userId, Long bookId, int progress) {
+        LocalDate today = LocalDate.now(userService.getZone(userId));
+        pending.put(new ProgressKey(userId, bookId), new PendingProgress(progress, today));
+        // Reads already see the new value
+        versionStampService.bump(userId);
+    }
+
+    public boolean isPending(Long userId, Long bookId) {
+        return pending.containsKey(new ProgressKey(userId, bookId));
+    }
+
+    /**
+     * Applies buffered progress to entries that are about to be returned.
+     */
+    public void overlay(Collection<LibraryBook> libraryBooks) {
+        if (pending.isEmpty() && inFlight.isEmpty()) {
+            return;
+        }
+        for (LibraryBook libraryBook : libraryBooks) {
+            ProgressKey key = new ProgressKey(libraryBook.getUser().getId(), libraryBook.getBook().getId());
+            PendingProgress progress = pending.get(key);
+            if (progress == null) {
+                progress = inFlight.get(key);
+            }
+            if (progress != null) {
+                progress.applyTo(libraryBook);
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the pending progress of an entry that is about to be written, or null.
+     * Must be called before the writing transaction reads anything, since it waits for a running flush.
+     * If that transaction rolls back, the value is buffered again unless a newer ping replaced it.
+     */
+    public synchronized PendingProgress take(Long userId, Long bookId) {
+        ProgressKey key = new ProgressKey(userId, bookId);
+        PendingProgress progress = pending.remove(key);
+        if (progress != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        pending.putIfAbsent(key, progress);
+                    }
+                }
+            });
+        }
+        return progress;
+    }
+
+    @Scheduled(fixedDelayString = "${booklog.progress.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Published before anything leaves pending, so reads always find each value in one of the two maps
+        Map<ProgressKey, PendingProgress> drained = new HashMap<>(pending);
+        inFlight = drained;
+        // A newer ping that replaced a drained value stays pending for the next flush
+        drained.forEach(pending::remove);
+
+        List<Object[]> rows = new ArrayList<>(drained.size());
+        List<Object[]> userBookRows = new ArrayList<>(drained.size());
+        drained.forEach((key, progress) -> {
+            rows.add(new Object[]{progress.progress(), progress.lastReadDate(), key.userId(), key.bookId()});
+            userBookRows.add(new Object[]{key.userId(), key.bookId()});
+        });
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                progressRepository.updateProgress(rows);
+                syncService.recordLibraryBooks(userBookRows);
+            });
+            // A read that loaded rows before the commit may overlay nothing once inFlight is cleared
+            drained.keySet().stream().map(ProgressKey::userId).distinct().forEach(versionStampService::bump);
+            log.debug("Flushed progress of {} library entries", rows.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush progress, retrying on next flush", e);
+            // Newer pings that arrived meanwhile win
+            drained.forEach(pending::putIfAbsent);
+        } finally {
+            inFlight = Map.of();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private record ProgressKey(Long userId, Long bookId) {
+    }
+
+    public record PendingProgress(int progress, LocalDate lastReadDate) {
+
+        public void applyTo(LibraryBook libraryBook) {
+            libraryBook.setProgress(progress);
+            libraryBook.setLastReadDate(lastReadDate);
+        }
+    }
+}
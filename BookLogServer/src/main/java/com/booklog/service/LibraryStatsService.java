@@ -0,0 +1,255 @@
+package com.booklog.service;
+
+import com.booklog.dto.LibraryStatsSummary;
+import com.booklog.entity.LibraryBook;
+import com.booklog.entity.LibraryBook.BookStatus;
+import com.booklog.entity.LibraryStatCounter;
+import com.booklog.entity.User;
+import com.booklog.repository.LibraryBookRepository;
+import com.booklog.repository.LibraryStatCounterRepository;
+import com.booklog.repository.UserRepository;
+import com.booklog.util.UserCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user library statistics kept as counters in library_stat_counters.
+ * <p>
+ * LibraryBookService reports the counters of each entry before and after a change, and the
+ * difference is applied with in-place increments in the same transaction. Reads come from a
+ * cache of each user's counters that is evicted when a transaction touching them completes.
+ * Users without counters are materialized from library_books on first use, and a nightly
+ * repair job recomputes every user's counters from source.
+ */
+@Service
+public class LibraryStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(LibraryStatsService.class);
+
+    private static final int MAX_CACHED_USERS = 10000;
+
+    static final String TOTAL = "total";
+    static final String FAVORITES = "favorites";
+    static final String STATUS_PREFIX = "status:";
+    static final String TAG_PREFIX = "tag:";
+
+    private final LibraryStatCounterRepository counterRepository;
+    private final LibraryBookRepository libraryBookRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final UserCache<Long, Map<String, Long>> cache = UserCache.perUser(MAX_CACHED_USERS);
+
+    public LibraryStatsService(LibraryStatCounterRepository counterRepository,
+                               LibraryBookRepository libraryBookRepository,
+                               UserRepository userRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.counterRepository = counterRepository;
+        this.libraryBookRepository = libraryBookRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Returns the counters a single library entry contributes.
+     */
+    public static Map<String, Long> countersOf(LibraryBook libraryBook) {
+        Map<String, Long> counters = new HashMap<>();
+        counters.put(TOTAL, 1L);
+        counters.put(STATUS_PREFIX + libraryBook.getStatus().name(), 1L);
+        if (libraryBook.isFavorite()) {
+            counters.put(FAVORITES, 1L);
+        }
+        if (libraryBook.getTags() != null) {
+            for (String tag : libraryBook.getTags()) {
+                counters.put(TAG_PREFIX + tag, 1L);
+            }
+        }
+        return counters;
+    }
+
+    /**
+     * Adds the difference between an entry's counters before and after a change to delta.
+     * Either side may be empty for added or removed entries.
+     */
+    public static void accumulate(Map<String, Long> delta, Map<String, Long> before, Map<String, Long> after) {
+        before.forEach((name, value) -> delta.merge(name, -value, Long::sum));
+        after.forEach((name, value) -> delta.merge(name, value, Long::sum));
+    }
+
+    public void recordChange(Long userId, Map<String, Long> before, Map<String, Long> after) {
+        Map<String, Long> delta = new HashMap<>();
+        accumulate(delta, before, after);
+        recordChanges(userId, delta);
+    }
+
+    /**
+     * Applies counter deltas in the caller's transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanges(Long userId, Map<String, Long> delta) {
+        evictAfterCompletion(userId);
+
+        // The total counter exists once a user is materialized, so updating it doubles as the check
+        if (counterRepository.increment(userId, TOTAL, delta.getOrDefault(TOTAL, 0L)) == 0) {
+            materialize(userId);
+            return;
+        }
+
+        for (Map.Entry<String, Long> entry : delta.entrySet()) {
+            if (entry.getKey().equals(TOTAL) || entry.getValue() == 0) {
+                continue;
+            }
+            if (counterRepository.increment(userId, entry.getKey(), entry.getValue()) == 0) {
+                counterRepository.save(LibraryStatCounter.builder()
+                        .userId(userId)
+                        .name(entry.getKey())
+                        .amount(entry.getValue())
+                        .build());
+            }
+        }
+    }
+
+    public Map<BookStatus, Long> getStatusCounts(Long userId) {
+        return statusCounts(getCounters(userId));
+    }
+
+    public LibraryStatsSummary getSummary(Long userId) {
+        Map<String, Long> counters = getCounters(userId);
+
+        Map<String, Long> tagCounts = new LinkedHashMap<>();
+        counters.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(TAG_PREFIX) && entry.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> tagCounts.put(entry.getKey().substring(TAG_PREFIX.length()), entry.getValue()));
+
+        return new LibraryStatsSummary(
+                counters.getOrDefault(TOTAL, 0L),
+                statusCounts(counters),
+                counters.getOrDefault(FAVORITES, 0L),
+                tagCounts);
+    }
+
+    /**
+     * Recomputes every user's counters from library_books and fixes any that drifted.
+     */
+    @Scheduled(cron = "${booklog.stats.repair-cron:0 30 3 * * *}")
+    public void repairAll() {
+        long start = System.currentTimeMillis();
+        int repaired = 0;
+        List<Long> userIds = userRepository.findAll().stream().map(User::getId).toList();
+        for (Long userId : userIds) {
+            Boolean changed = transactionTemplate.execute(status -> repair(userId));
+            if (Boolean.TRUE.equals(changed)) {
+                repaired++;
+            }
+        }
+
+        log.info("Checked library stats of {} users in {} ms, repaired {}",
+                userIds.size(), System.currentTimeMillis() - start, repaired);
+    }
+
+    private boolean repair(Long userId) {
+        Map<String, Long> stored = new HashMap<>();
+        for (LibraryStatCounter counter : counterRepository.findByUserId(userId)) {
+            if (counter.getAmount() != 0 || counter.getName().equals(TOTAL)) {
+                stored.put(counter.getName(), counter.getAmount());
+            }
+        }
+        Map<String, Long> actual = computeFromSource(userId);
+        actual.entrySet().removeIf(entry -> entry.getValue() == 0 && !entry.getKey().equals(TOTAL));
+        if (stored.equals(actual)) {
+            return false;
+        }
+
+        log.warn("Library stats of user {} drifted, recomputing", userId);
+        materialize(userId);
+        return true;
+    }
+
+    private Map<String, Long> getCounters(Long userId) {
+        return cache.getOrLoad(userId, this::loadCounters);
+    }
+
+    private Map<String, Long> loadCounters(Long userId) {
+        Map<String, Long> counters = new HashMap<>();
+        for (LibraryStatCounter counter : counterRepository.findByUserId(userId)) {
+            counters.put(counter.getName(), counter.getAmount());
+        }
+        if (!counters.containsKey(TOTAL)) {
+            counters = transactionTemplate.execute(status -> materialize(userId));
+        }
+        return Collections.unmodifiableMap(counters);
+    }
+
+    private Map<String, Long> materialize(Long userId) {
+        evictAfterCompletion(userId);
+
+        Map<String, Long> counters = computeFromSource(userId);
+        counterRepository.deleteByUserId(userId);
+        counterRepository.flush();
+        counterRepository.saveAll(counters.entrySet().stream()
+                .filter(entry -> entry.getKey().equals(TOTAL) || entry.getValue() != 0)
+                .map(entry -> LibraryStatCounter.builder()
+                        .userId(userId)
+                        .name(entry.getKey())
+                        .amount(entry.getValue())
+                        .build())
+                .toList());
+        return counters;
+    }
+
+    private Map<String, Long> computeFromSource(Long userId) {
+        Map<String, Long> counters = new HashMap<>();
+        long total = 0;
+        for (Object[] row : libraryBookRepository.countByUserIdGroupByStatus(userId)) {
+            counters.put(STATUS_PREFIX + ((BookStatus) row[0]).name(), (Long) row[1]);
+            total += (Long) row[1];
+        }
+        counters.put(TOTAL, total);
+        counters.put(FAVORITES, libraryBookRepository.countByUserIdAndFavoriteTrue(userId));
+        for (Object[] row : libraryBookRepository.countTagsByUserId(userId)) {
+            counters.put(TAG_PREFIX + row[0], (Long) row[1]);
+        }
+        return counters;
+    }
+
+    private static Map<BookStatus, Long> statusCounts(Map<String, Long> counters) {
+        Map<BookStatus, Long> statusCounts = new EnumMap<>(BookStatus.class);
+        for (BookStatus status : BookStatus.values()) {
+            long count = counters.getOrDefault(STATUS_PREFIX + status.name(), 0L);
+            if (count > 0) {
+                statusCounts.put(status, count);
+            }
+        }
+        return statusCounts;
+    }
+
+    // Evicted again once the transaction ends, so a read that raced the change cannot keep a stale copy
+    private void evictAfterCompletion(Long userId) {
+        cache.evict(List.of(userId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(List.of(userId));
+                }
+            });
+        }
+    }
+}
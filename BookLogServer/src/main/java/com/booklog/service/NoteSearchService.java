@@ -0,0 +1,90 @@
+package com.booklog.service;
+
+import com.booklog.dto.NoteSearchResult;
+import com.booklog.entity.ReadingHighlight;
+import com.booklog.entity.ReadingNote;
+import com.booklog.repository.ReadingHighlightRepository;
+import com.booklog.repository.ReadingNoteRepository;
+import com.booklog.search.InvertedIndex;
+import com.booklog.search.InvertedIndex.Match;
+import com.booklog.search.NoteSearchIndex;
+import com.booklog.search.NoteSearchIndex.EntryKey;
+import com.booklog.search.NoteSearchIndex.EntryType;
+import com.booklog.search.SnippetBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class NoteSearchService {
+
+    private final NoteSearchIndex noteSearchIndex;
+    private final ReadingNoteRepository readingNoteRepository;
+    private final ReadingHighlightRepository readingHighlightRepository;
+
+    public NoteSearchService(NoteSearchIndex noteSearchIndex,
+                             ReadingNoteRepository readingNoteRepository,
+                             ReadingHighlightRepository readingHighlightRepository) {
+        this.noteSearchIndex = noteSearchIndex;
+        this.readingNoteRepository = readingNoteRepository;
+        this.readingHighlightRepository = readingHighlightRepository;
+    }
+
+    /**
+     * Searches the user's notes and highlights, best match first.
+     * Queries shorter than two characters match nothing.
+     */
+    public Page<NoteSearchResult> search(Long userId, String query, Pageable pageable) {
+        // Only ranks as many matches as the pages up to this one hold
+        int limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        InvertedIndex.Hits<EntryKey> hits = noteSearchIndex.search(userId, query, limit);
+        List<Match<EntryKey>> matches = hits.matches();
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        List<Match<EntryKey>> pageMatches = matches.subList(from, matches.size());
+
+        List<Long> noteIds = idsOfType(pageMatches, EntryType.NOTE);
+        List<Long> highlightIds = idsOfType(pageMatches, EntryType.HIGHLIGHT);
+
+        Map<Long, ReadingNote> notes = readingNoteRepository.findAllById(noteIds).stream()
+                .collect(Collectors.toMap(ReadingNote::getId, Function.identity()));
+        Map<Long, ReadingHighlight> highlights = readingHighlightRepository.findAllById(highlightIds).stream()
+                .collect(Collectors.toMap(ReadingHighlight::getId, Function.identity()));
+
+        List<NoteSearchResult> results = new ArrayList<>(pageMatches.size());
+        for (Match<EntryKey> match : pageMatches) {
+            EntryKey key = match.key();
+            if (key.type() == EntryType.NOTE) {
+                ReadingNote note = notes.get(key.id());
+                if (note != null) {
+                    results.add(new NoteSearchResult(EntryType.NOTE, note.getId(), note.getBook().getId(),
+                            note.getPage(), match.score(), SnippetBuilder.build(query, note.getContent())));
+                }
+            } else {
+                ReadingHighlight highlight = highlights.get(key.id());
+                if (highlight != null) {
+                    results.add(new NoteSearchResult(EntryType.HIGHLIGHT, highlight.getId(),
+                            highlight.getBook().getId(), highlight.getPage(), match.score(),
+                            SnippetBuilder.build(query, highlight.getContent(), highlight.getNote())));
+                }
+            }
+        }
+
+        return new PageImpl<>(results, pageable, hits.total());
+    }
+
+    private static List<Long> idsOfType(List<Match<EntryKey>> matches, EntryType type) {
+        return matches.stream()
+                .map(Match::key)
+                .filter(key -> key.type() == type)
+                .map(EntryKey::id)
+                .toList();
+    }
+}
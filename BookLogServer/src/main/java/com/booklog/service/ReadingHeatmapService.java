@@ -0,0 +1,129 @@
+package com.booklog.service;
+
+import com.booklog.dto.ReadingHeatmap;
+import com.booklog.dto.ReadingTimeBucket;
+import com.booklog.entity.ReadingRollup.Period;
+import com.booklog.repository.ReadingRollupRepository;
+import com.booklog.util.AfterCommit;
+import com.booklog.util.UserCache;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Yearly reading heatmaps, kept in memory as minutes per day of year.
+ * <p>
+ * A user's year is loaded from the day rollups on first use into a short per day, kept for the
+ * most recently used user years, and updated with the day deltas of each committed session write,
+ * so serving a heatmap only quantizes at most 366 values.
+ */
+@Service
+public class ReadingHeatmapService {
+
+    private static final int MAX_CACHED_YEARS = 10000;
+
+    private static final List<Integer> THRESHOLDS = List.of(1, 15, 30, 60);
+
+    private final ReadingRollupRepository rollupRepository;
+
+    private final UserCache<YearKey, short[]> heatmaps = new UserCache<>(MAX_CACHED_YEARS, YearKey::userId);
+
+    public ReadingHeatmapService(ReadingRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+
+    public ReadingHeatmap getHeatmap(Long userId, int year) {
+        if (year < 1970 || year > LocalDate.now().getYear() + 1) {
+            throw new IllegalArgumentException("Invalid year: " + year);
+        }
+
+        short[] minutes = getMinutes(userId, year);
+        StringBuilder levels = new StringBuilder(minutes.length);
+        long total = 0;
+        int activeDays = 0;
+        int max = 0;
+        synchronized (minutes) {
+            for (short dayMinutes : minutes) {
+                levels.append((char) ('0' + levelOf(dayMinutes)));
+                total += dayMinutes;
+                if (dayMinutes > 0) {
+                    activeDays++;
+                }
+                max = Math.max(max, dayMinutes);
+            }
+        }
+        return new ReadingHeatmap(year, levels.toString(), THRESHOLDS, total, activeDays, max);
+    }
+
+    /**
+     * Adds minutes per day to the cached years once the surrounding transaction commits.
+     */
+    public void recordMinutes(Long userId, Map<LocalDate, Long> minutesByDay) {
+        Map<LocalDate, Long> deltas = Map.copyOf(minutesByDay);
+        heatmaps.afterCommit(userId, () -> {
+            deltas.forEach((day, delta) -> {
+                YearKey key = new YearKey(userId, day.getYear());
+                short[] minutes = heatmaps.get(key);
+                if (minutes == null) {
+                    return;
+                }
+                synchronized (minutes) {
+                    int index = day.getDayOfYear() - 1;
+                    long value = minutes[index] + delta;
+                    if (value < 0 || value > Short.MAX_VALUE) {
+                        heatmaps.remove(key, minutes);
+                    } else {
+                        minutes[index] = (short) value;
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Drops the cached years of users whose day rollups were rebuilt, once the transaction commits.
+     */
+    public void evict(Collection<Long> userIds) {
+        List<Long> evicted = List.copyOf(userIds);
+        AfterCommit.run(() -> heatmaps.evict(evicted));
+    }
+
+    private short[] getMinutes(Long userId, int year) {
+        // A day capped at Short.MAX_VALUE could not be updated with deltas, so such a year is not cached
+        return heatmaps.getOrLoad(new YearKey(userId, year), this::loadMinutes, ReadingHeatmapService::isExact);
+    }
+
+    private short[] loadMinutes(YearKey key) {
+        int year = key.year();
+        short[] minutes = new short[Year.of(year).length()];
+        for (ReadingTimeBucket bucket : rollupRepository.findRange(
+                key.userId(), Period.DAY, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31))) {
+            minutes[bucket.getPeriodStart().getDayOfYear() - 1] = (short) Math.min(bucket.getMinutes(), Short.MAX_VALUE);
+        }
+        return minutes;
+    }
+
+    private static boolean isExact(short[] minutes) {
+        for (short dayMinutes : minutes) {
+            if (dayMinutes == Short.MAX_VALUE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int levelOf(int minutes) {
+        int level = 0;
+        while (level < THRESHOLDS.size() && minutes >= THRESHOLDS.get(level)) {
+            level++;
+        }
+        return level;
+    }
+
+    private record YearKey(Long userId, int year) {
+    }
+}
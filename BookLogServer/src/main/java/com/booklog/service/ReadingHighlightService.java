@@ -0,0 +1,135 @@
+package com.booklog.service;
+
+import com.booklog.dto.CursorPage;
+import com.booklog.entity.Book;
+import com.booklog.entity.ReadingHighlight;
+import com.booklog.entity.User;
+import com.booklog.event.ChangeType;
+import com.booklog.event.ReadingHighlightChangedEvent;
+import com.booklog.exception.ResourceNotFoundException;
+import com.booklog.repository.ReadingHighlightRepository;
+import com.booklog.util.CursorCodec;
+import com.booklog.util.CursorCodec.Cursor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+public class ReadingHighlightService {
+
+    private final ReadingHighlightRepository readingHighlightRepository;
+    private final UserService userService;
+    private final BookService bookService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReadingHighlightService(ReadingHighlightRepository readingHighlightRepository,
+                                   UserService userService,
+                                   BookService bookService,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.readingHighlightRepository = readingHighlightRepository;
+        this.userService = userService;
+        this.bookService = bookService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public Page<ReadingHighlight> getUserHighlights(Long userId, Pageable pageable) {
+        User user = userService.getUserById(userId);
+        return readingHighlightRepository.findByUser(user, pageable);
+    }
+
+    /**
+     * Returns the user's highlights newest first using keyset pagination, without a count query.
+     */
+    public CursorPage<ReadingHighlight> scrollUserHighlights(Long userId, String cursor, int size) {
+        User user = userService.getUserById(userId);
+        Pageable pageable = CursorPage.request(size);
+        
+        Slice<ReadingHighlight> slice;
+        if (cursor == null) {
+            slice = readingHighlightRepository.findByUserOrderByDateDescIdDesc(user, pageable);
+        } else {
+            Cursor position = CursorCodec.decode(cursor);
+            slice = readingHighlightRepository.findByUserAfterCursor(user, position.dateTimeKey(), position.id(), pageable);
+        }
+        
+        return CursorPage.of(slice, highlight -> CursorCodec.encode(highlight.getDate(), highlight.getId()));
+    }
+
+    public Page<ReadingHighlight> getUserHighlightsForBook(Long userId, Long bookId, Pageable pageable) {
+        User user = userService.getUserById(userId);
+        Book book = bookService.getBookById(bookId);
+        return readingHighlightRepository.findByUserAndBook(user, book, pageable);
+    }
+
+    public ReadingHighlight getUserHighlight(Long userId, Long highlightId) {
+        return readingHighlightRepository.findByIdAndUserId(highlightId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("ReadingHighlight", "id", highlightId));
+    }
+
+    @Transactional
+    public ReadingHighlight createHighlight(Long userId, Long bookId, ReadingHighlight highlight) {
+        highlight.setUser(userService.getUserById(userId));
+        highlight.setBook(bookService.getBookById(bookId));
+        
+        if (highlight.getDate() == null) {
+            highlight.setDate(LocalDateTime.now());
+        }
+        
+        ReadingHighlight savedHighlight = readingHighlightRepository.save(highlight);
+        eventPublisher.publishEvent(new ReadingHighlightChangedEvent(savedHighlight, ChangeType.CREATED));
+        return savedHighlight;
+    }
+
+    @Transactional
+    public ReadingHighlight updateHighlight(Long userId, Long highlightId, ReadingHighlight highlightDetails, Boolean favorite) {
+        ReadingHighlight highlight = getUserHighlight(userId, highlightId);
+        
+        // Update fields
+        if (highlightDetails.getContent() != null) {
+            highlight.setContent(highlightDetails.getContent());
+        }
+        
+        if (highlightDetails.getPage() != null) {
+            highlight.setPage(highlightDetails.getPage());
+        }
+        
+        if (highlightDetails.getLocation() != null) {
+            highlight.setLocation(highlightDetails.getLocation());
+        }
+        
+        if (highlightDetails.getColor() != null) {
+            highlight.setColor(highlightDetails.getColor());
+        }
+        
+        if (highlightDetails.getNote() != null) {
+            highlight.setNote(highlightDetails.getNote());
+        }
+        
+        if (highlightDetails.getTags() != null) {
+            highlight.setTags(highlightDetails.getTags());
+        }
+        
+        if (favorite != null) {
+            highlight.setFavorite(favorite);
+        }
+        
+        // Collection changes alone do not update the row, which the sync log relies on
+        highlight.setUpdatedAt(LocalDateTime.now());
+        
+        ReadingHighlight savedHighlight = readingHighlightRepository.save(highlight);
+        eventPublisher.publishEvent(new ReadingHighlightChangedEvent(savedHighlight, ChangeType.UPDATED));
+        return savedHighlight;
+    }
+
+    @Transactional
+    public void deleteHighlight(Long userId, Long highlightId) {
+        ReadingHighlight highlight = getUserHighlight(userId, highlightId);
+        readingHighlightRepository.delete(highlight);
+        eventPublisher.publishEvent(new ReadingHighlightChangedEvent(highlight, ChangeType.DELETED));
+    }
+}
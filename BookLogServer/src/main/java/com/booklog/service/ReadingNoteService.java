@@ -0,0 +1,131 @@
+package com.booklog.service;
+
+import com.booklog.dto.CursorPage;
+import com.booklog.entity.Book;
+import com.booklog.entity.ReadingNote;
+import com.booklog.entity.User;
+import com.booklog.event.ChangeType;
+import com.booklog.event.ReadingNoteChangedEvent;
+import com.booklog.exception.ResourceNotFoundException;
+import com.booklog.repository.ReadingNoteRepository;
+import com.booklog.util.CursorCodec;
+import com.booklog.util.CursorCodec.Cursor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+public class ReadingNoteService {
+
+    private final ReadingNoteRepository readingNoteRepository;
+    private final UserService userService;
+    private final BookService bookService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReadingNoteService(ReadingNoteRepository readingNoteRepository,
+                              UserService userService,
+                              BookService bookService,
+                              ApplicationEventPublisher eventPublisher) {
+        this.readingNoteRepository = readingNoteRepository;
+        this.userService = userService;
+        this.bookService = bookService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public Page<ReadingNote> getUserNotes(Long userId, Pageable pageable) {
+        User user = userService.getUserById(userId);
+        return readingNoteRepository.findByUser(user, pageable);
+    }
+
+    /**
+     * Returns the user's notes newest first using keyset pagination, without a count query.
+     */
+    public CursorPage<ReadingNote> scrollUserNotes(Long userId, String cursor, int size) {
+        User user = userService.getUserById(userId);
+        Pageable pageable = CursorPage.request(size);
+        
+        Slice<ReadingNote> slice;
+        if (cursor == null) {
+            slice = readingNoteRepository.findByUserOrderByDateDescIdDesc(user, pageable);
+        } else {
+            Cursor position = CursorCodec.decode(cursor);
+            slice = readingNoteRepository.findByUserAfterCursor(user, position.dateTimeKey(), position.id(), pageable);
+        }
+        
+        return CursorPage.of(slice, note -> CursorCodec.encode(note.getDate(), note.getId()));
+    }
+
+    public Page<ReadingNote> getUserNotesForBook(Long userId, Long bookId, Pageable pageable) {
+        User user = userService.getUserById(userId);
+        Book book = bookService.getBookById(bookId);
+        return readingNoteRepository.findByUserAndBook(user, book, pageable);
+    }
+
+    public ReadingNote getUserNote(Long userId, Long noteId) {
+        return readingNoteRepository.findByIdAndUserId(noteId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("ReadingNote", "id", noteId));
+    }
+
+    @Transactional
+    public ReadingNote createNote(Long userId, Long bookId, ReadingNote note) {
+        note.setUser(userService.getUserById(userId));
+        note.setBook(bookService.getBookById(bookId));
+        
+        if (note.getDate() == null) {
+            note.setDate(LocalDateTime.now());
+        }
+        
+        ReadingNote savedNote = readingNoteRepository.save(note);
+        eventPublisher.publishEvent(new ReadingNoteChangedEvent(savedNote, ChangeType.CREATED));
+        return savedNote;
+    }
+
+    @Transactional
+    public ReadingNote updateNote(Long userId, Long noteId, ReadingNote noteDetails, Boolean favorite) {
+        ReadingNote note = getUserNote(userId, noteId);
+        
+        // Update fields
+        if (noteDetails.getContent() != null) {
+            note.setContent(noteDetails.getContent());
+        }
+        
+        if (noteDetails.getPage() != null) {
+            note.setPage(noteDetails.getPage());
+        }
+        
+        if (noteDetails.getChapter() != null) {
+            note.setChapter(noteDetails.getChapter());
+        }
+        
+        if (noteDetails.getTags() != null) {
+            note.setTags(noteDetails.getTags());
+        }
+        
+        if (noteDetails.getImages() != null) {
+            note.setImages(noteDetails.getImages());
+        }
+        
+        if (favorite != null) {
+            note.setFavorite(favorite);
+        }
+        
+        // Collection changes alone do not update the row, which the sync log relies on
+        note.setUpdatedAt(LocalDateTime.now());
+        
+        ReadingNote savedNote = readingNoteRepository.save(note);
+        eventPublisher.publishEvent(new ReadingNoteChangedEvent(savedNote, ChangeType.UPDATED));
+        return savedNote;
+    }
+
+    @Transactional
+    public void deleteNote(Long userId, Long noteId) {
+        ReadingNote note = getUserNote(userId, noteId);
+        readingNoteRepository.delete(note);
+        eventPublisher.publishEvent(new ReadingNoteChangedEvent(note, ChangeType.DELETED));
+    }
+}
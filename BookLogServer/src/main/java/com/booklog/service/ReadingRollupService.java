@@ -0,0 +1,252 @@
+package com.booklog.service;
+
+import com.booklog.dto.ReadingTimeBucket;
+import com.booklog.dto.ReadingTimeStats;
+import com.booklog.entity.ReadingRollup.Period;
+import com.booklog.entity.ReadingSession;
+import com.booklog.repository.ReadingRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reading time, pages and session counts per user and day, ISO week and month.
+ * <p>
+ * ReadingSessionService reports each session's contribution before and after a change, and the
+ * difference is upserted into reading_rollups in the same transaction, so statistics read a few
+ * indexed rows instead of grouping raw sessions by date. A backfill rebuilds every user's rollups
+ * from reading_sessions when the table is empty at startup and nightly. Chunks of users are
+ * aggregated in parallel; their writes are serialized, since SQLite has a single writer.
+ */
+@Service
+public class ReadingRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadingRollupService.class);
+
+    private static final int MAX_RANGE_DAYS = 3660;
+
+    private final ReadingRollupRepository rollupRepository;
+    private final ReadingStreakService readingStreakService;
+    private final ReadingHeatmapService readingHeatmapService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int backfillThreads;
+    private final int backfillChunkSize;
+
+    // Users written since the last backfill; during a backfill their chunk is aggregated again under the write lock
+    private final Set<Long> touchedUsers = ConcurrentHashMap.newKeySet();
+    // Chunks are aggregated in parallel but written one at a time
+    private final Object backfillWriteLock = new Object();
+
+    public ReadingRollupService(ReadingRollupRepository rollupRepository,
+                                ReadingStreakService readingStreakService,
+                                ReadingHeatmapService readingHeatmapService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${booklog.rollups.backfill-threads:4}") int backfillThreads,
+                                @Value("${booklog.rollups.backfill-chunk-size:200}") int backfillChunkSize) {
+        this.rollupRepository = rollupRepository;
+        this.readingStreakService = readingStreakService;
+        this.readingHeatmapService = readingHeatmapService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.backfillThreads = backfillThreads;
+        this.backfillChunkSize = backfillChunkSize;
+    }
+
+    /**
+     * What a single session adds to its periods.
+     */
+    public record Contribution(LocalDate day, int minutes, int pages) {
+    }
+
+    public static Contribution contributionOf(ReadingSession session) {
+        return contributionOf(session.getDate(), session.getStartPage(), session.getEndPage(), session.getDuration());
+    }
+
+    /**
+     * Applies the difference between sessions' contributions before and after a change in the
+     * caller's transaction. Either side may be empty for created or deleted sessions.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(Long userId, List<Contribution> before, List<Contribution> after) {
+        Map<RollupKey, Totals> delta = new HashMap<>();
+        before.forEach(contribution -> accumulate(delta, userId, contribution, -1));
+        after.forEach(contribution -> accumulate(delta, userId, contribution, 1));
+        delta.values().removeIf(Totals::isZero);
+        if (delta.isEmpty()) {
+            return;
+        }
+
+        touchedUsers.add(userId);
+        rollupRepository.applyDeltas(toRows(delta));
+
+        Set<LocalDate> days = new HashSet<>();
+        before.forEach(contribution -> days.add(contribution.day()));
+        after.forEach(contribution -> days.add(contribution.day()));
+        readingStreakService.recordDays(userId, days);
+
+        Map<LocalDate, Long> minutesByDay = new HashMap<>();
+        delta.forEach((key, value) -> {
+            if (key.period() == Period.DAY && value.minutes() != 0) {
+                minutesByDay.put(key.periodStart(), value.minutes());
+            }
+        });
+        if (!minutesByDay.isEmpty()) {
+            readingHeatmapService.recordMinutes(userId, minutesByDay);
+        }
+    }
+
+    /**
+     * Returns the user's reading per period between from and to, inclusive. Each date is moved to
+     * the start of its period, so a week or month that overlaps the range is counted whole.
+     */
+    public ReadingTimeStats getReadingTime(Long userId, Period period, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range must be at most " + MAX_RANGE_DAYS + " days");
+        }
+
+        List<ReadingTimeBucket> buckets = rollupRepository.findRange(
+                userId, period, periodStart(period, from), periodStart(period, to));
+        long minutes = 0;
+        long pages = 0;
+        int sessions = 0;
+        for (ReadingTimeBucket bucket : buckets) {
+            minutes += bucket.getMinutes();
+            pages += bucket.getPages();
+            sessions += bucket.getSessions();
+        }
+        return new ReadingTimeStats(period, from, to, minutes, pages, sessions, buckets);
+    }
+
+    public static LocalDate periodStart(Period period, LocalDate date) {
+        return switch (period) {
+            case DAY -> date;
+            case WEEK -> date.with(DayOfWeek.MONDAY);
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.isEmpty()) {
+            backfill();
+        }
+    }
+
+    /**
+     * Rebuilds every user's rollups from reading_sessions.
+     */
+    @Scheduled(cron = "${booklog.rollups.backfill-cron:0 0 3 * * *}")
+    public synchronized void backfill() {
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(backfillThreads, r -> new Thread(r, "rollup-backfill"));
+        try {
+            List<Long> userIds = readOnlyTransactionTemplate.execute(status -> rollupRepository.findUserIds());
+            AtomicInteger rows = new AtomicInteger();
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int from = 0; from < userIds.size(); from += backfillChunkSize) {
+                List<Long> chunk = userIds.subList(from, Math.min(from + backfillChunkSize, userIds.size()));
+                chunks.add(executor.submit(() -> rows.addAndGet(backfillChunk(chunk))));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+            log.info("Rebuilt {} reading rollups of {} users in {} ms",
+                    rows.get(), userIds.size(), System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Reading rollup backfill interrupted");
+        } catch (Exception e) {
+            log.error("Reading rollup backfill failed", e);
+        } finally {
+            executor.shutdownNow();
+            // Writes still in flight commit long before the snapshots of the next backfill
+            touchedUsers.clear();
+        }
+    }
+
+    private int backfillChunk(List<Long> userIds) {
+        List<Object[]> aggregated = readOnlyTransactionTemplate.execute(status -> aggregate(userIds));
+
+        synchronized (backfillWriteLock) {
+            return transactionTemplate.execute(status -> {
+                // Deleting first takes the write lock, so every write the snapshot missed has committed and marked its user
+                rollupRepository.deleteForUsers(userIds);
+                Set<Long> touched = new HashSet<>(userIds);
+                touched.retainAll(touchedUsers);
+                List<Object[]> rows = touched.isEmpty() ? aggregated : aggregate(userIds);
+                rollupRepository.insert(rows);
+                readingStreakService.reset(userIds);
+                readingHeatmapService.evict(userIds);
+                return rows.size();
+            });
+        }
+    }
+
+    private List<Object[]> aggregate(List<Long> userIds) {
+        Map<RollupKey, Totals> totals = new HashMap<>();
+        rollupRepository.forEachSession(userIds, row -> accumulate(totals, (Long) row[0],
+                contributionOf((LocalDateTime) row[1], (Integer) row[2], (Integer) row[3], (Integer) row[4]), 1));
+        return toRows(totals);
+    }
+
+    private static Contribution contributionOf(LocalDateTime date, Integer startPage, Integer endPage, Integer duration) {
+        return new Contribution(date.toLocalDate(), duration, Math.max(0, endPage - startPage));
+    }
+
+    private static void accumulate(Map<RollupKey, Totals> totals, Long userId, Contribution contribution, int sign) {
+        Totals delta = new Totals(sign * (long) contribution.minutes(), sign * (long) contribution.pages(), sign);
+        for (Period period : Period.values()) {
+            totals.merge(new RollupKey(userId, period, periodStart(period, contribution.day())), delta, Totals::plus);
+        }
+    }
+
+    private static List<Object[]> toRows(Map<RollupKey, Totals> totals) {
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((key, value) -> rows.add(new Object[]{
+                key.userId(), key.period(), key.periodStart(), value.minutes(), value.pages(), value.sessions()}));
+        return rows;
+    }
+
+    private record RollupKey(Long userId, Period period, LocalDate periodStart) {
+    }
+
+    private record Totals(long minutes, long pages, int sessions) {
+
+        private Totals plus(Totals other) {
+            return new Totals(minutes + other.minutes, pages + other.pages, sessions + other.sessions);
+        }
+
+        private boolean isZero() {
+            return minutes == 0 && pages == 0 && sessions == 0;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.booklog.service;
+
+import com.booklog.dto.CursorPage;
+import com.booklog.entity.Book;
+import com.booklog.entity.ReadingSession;
+import com.booklog.entity.SyncChange.ChangeKind;
+import com.booklog.entity.SyncChange.EntityType;
+import com.booklog.entity.User;
+import com.booklog.event.ChangeType;
+import com.booklog.event.ReadingSessionChangedEvent;
+import com.booklog.exception.ResourceNotFoundException;
+import com.booklog.repository.BookRepository;
+import com.booklog.repository.ReadingSessionBulkRepository;
+import com.booklog.repository.ReadingSessionRepository;
+import com.booklog.service.LibraryBookService.ReadingActivity;
+import com.booklog.service.ReadingRollupService.Contribution;
+import com.booklog.util.CursorCodec;
+import com.booklog.util.CursorCodec.Cursor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ReadingSessionService {
+
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private final ReadingSessionRepository readingSessionRepository;
+    private final ReadingSessionBulkRepository readingSessionBulkRepository;
+    private final BookRepository bookRepository;
+    private final UserService userService;
+    private final BookService bookService;
+    private final LibraryBookService libraryBookService;
+    private final SyncService syncService;
+    private final ReadingRollupService readingRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReadingSessionService(ReadingSessionRepository readingSessionRepository,
+                                 ReadingSessionBulkRepository readingSessionBulkRepository,
+                                 BookRepository bookRepository,
+                                 UserService userService,
+                                 BookService bookService,
+                                 LibraryBookService libraryBookService,
+                                 SyncService syncService,
+                                 ReadingRollupService readingRollupService,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager) {
+        this.readingSessionRepository = readingSessionRepository;
+        this.readingSessionBulkRepository = readingSessionBulkRepository;
+        this.bookRepository = bookRepository;
+        this.userService = userService;
+        this.bookService = bookService;
+        this.libraryBookService = libraryBookService;
+        this.syncService = syncService;
+        this.readingRollupService = readingRollupService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Page<ReadingSession> getUserSessions(Long userId, Pageable pageable) {
+        User user = userService.getUserById(userId);
+        return readingSessionRepository.findByUser(user, pageable);
+    }
+
+    /**
+     * Returns the user's sessions newest first using keyset pagination, without a count query.
+     */
+    public CursorPage<ReadingSession> scrollUserSessions(Long userId, String cursor, int size) {
+        User user = userService.getUserById(userId);
+        Pageable pageable = CursorPage.request(size);
+
+        Slice<ReadingSession> slice;
+        if (cursor == null) {
+            slice = readingSessionRepository.findByUserOrderByDateDescIdDesc(user, pageable);
+        } else {
+            Cursor position = CursorCodec.decode(cursor);
+            slice = readingSessionRepository.findByUserAfterCursor(user, position.dateTimeKey(), position.id(), pageable);
+        }
+
+        return CursorPage.of(slice, session -> CursorCodec.encode(session.getDate(), session.getId()));
+    }
+
+    public Page<ReadingSession> getUserSessionsForBook(Long userId, Long bookId, Pageable pageable) {
+        User user = userService.getUserById(userId);
+        Book book = bookService.getBookById(bookId);
+        return readingSessionRepository.findByUserAndBook(user, book, pageable);
+    }
+
+    public ReadingSession getUserSession(Long userId, Long sessionId) {
+        return readingSessionRepository.findByIdAndUserId(sessionId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("ReadingSession", "id", sessionId));
+    }
+
+    /**
+     * Creates a session. Without a date it is dated now in the user's time zone, which is looked up
+     * before the transaction starts, since the transaction must take buffered progress before it reads.
+     */
+    public ReadingSession createSession(Long userId, Long bookId, ReadingSession session) {
+        validate(session);
+        if (session.getDate() == null) {
+            session.setDate(LocalDateTime.now(userService.getZone(userId)));
+        }
+        return transactionTemplate.execute(status -> insertSession(userId, bookId, session));
+    }
+
+    private ReadingSession insertSession(Long userId, Long bookId, ReadingSession session) {
+        libraryBookService.recordReadingActivity(userId, Map.of(bookId, activityOf(session)));
+
+        session.setUser(userService.getUserById(userId));
+        session.setBook(bookService.getBookById(bookId));
+
+        ReadingSession savedSession = readingSessionRepository.save(session);
+        readingRollupService.recordChange(userId, List.of(), List.of(ReadingRollupService.contributionOf(savedSession)));
+        eventPublisher.publishEvent(new ReadingSessionChangedEvent(savedSession, ChangeType.CREATED));
+        return savedSession;
+    }
+
+    /**
+     * Inserts sessions recorded offline in one transaction. Each session must have its book set,
+     * as a reference holding only the id. All sessions are validated before anything is written;
+     * they are inserted in one JDBC batch and each library entry is updated once for the batch.
+     * Sessions without a date are dated now in the user's time zone.
+     */
+    public List<ReadingSession> createSessions(Long userId, List<ReadingSession> sessions) {
+        if (sessions.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " sessions per batch");
+        }
+        if (sessions.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime now = null;
+        for (ReadingSession session : sessions) {
+            if (session.getBook() == null || session.getBook().getId() == null) {
+                throw new IllegalArgumentException("Book is required");
+            }
+            validate(session);
+            if (session.getDate() == null) {
+                if (now == null) {
+                    now = LocalDateTime.now(userService.getZone(userId));
+                }
+                session.setDate(now);
+            }
+        }
+        return transactionTemplate.execute(status -> insertSessions(userId, sessions));
+    }
+
+    private List<ReadingSession> insertSessions(Long userId, List<ReadingSession> sessions) {
+        Map<Long, ReadingActivity> activityByBook = new HashMap<>();
+        for (ReadingSession session : sessions) {
+            activityByBook.merge(session.getBook().getId(), activityOf(session), ReadingActivity::plus);
+        }
+
+        // Takes over buffered progress, so it runs before anything else reads
+        libraryBookService.recordReadingActivity(userId, activityByBook);
+
+        User user = userService.getUserById(userId);
+        Set<Long> bookIds = activityByBook.keySet();
+        Map<Long, Book> books = bookRepository.findAllById(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        for (Long bookId : bookIds) {
+            if (!books.containsKey(bookId)) {
+                throw new ResourceNotFoundException("Book", "id", bookId);
+            }
+        }
+        for (ReadingSession session : sessions) {
+            session.setUser(user);
+            session.setBook(books.get(session.getBook().getId()));
+        }
+
+        readingSessionBulkRepository.insert(sessions);
+        syncService.recordAll(userId, EntityType.READING_SESSION,
+                sessions.stream().map(ReadingSession::getId).toList(), ChangeKind.UPSERT);
+        readingRollupService.recordChange(userId, List.of(),
+                sessions.stream().map(ReadingRollupService::contributionOf).toList());
+        sessions.forEach(session ->
+                eventPublisher.publishEvent(new ReadingSessionChangedEvent(session, ChangeType.CREATED)));
+        return sessions;
+    }
+
+    @Transactional
+    public ReadingSession updateSession(Long userId, Long sessionId, ReadingSession sessionDetails) {
+        ReadingSession session = getUserSession(userId, sessionId);
+        Contribution before = ReadingRollupService.contributionOf(session);
+
+        // Update fields
+        if (sessionDetails.getDate() != null) {
+            session.setDate(sessionDetails.getDate());
+        }
+
+        if (sessionDetails.getStartPage() != null) {
+            session.setStartPage(sessionDetails.getStartPage());
+        }
+
+        if (sessionDetails.getEndPage() != null) {
+            session.setEndPage(sessionDetails.getEndPage());
+        }
+
+        if (sessionDetails.getDuration() != null) {
+            session.setDuration(sessionDetails.getDuration());
+        }
+
+        session.setNotes(sessionDetails.getNotes());
+        session.setEmotion(sessionDetails.getEmotion());
+        session.setRating(sessionDetails.getRating());
+        session.setLocation(sessionDetails.getLocation());
+        validate(session);
+
+        ReadingSession savedSession = readingSessionRepository.save(session);
+        readingRollupService.recordChange(userId, List.of(before), List.of(ReadingRollupService.contributionOf(savedSession)));
+        eventPublisher.publishEvent(new ReadingSessionChangedEvent(savedSession, ChangeType.UPDATED));
+        return savedSession;
+    }
+
+    @Transactional
+    public void deleteSession(Long userId, Long sessionId) {
+        ReadingSession session = getUserSession(userId, sessionId);
+        readingSessionRepository.delete(session);
+        readingRollupService.recordChange(userId, List.of(ReadingRollupService.contributionOf(session)), List.of());
+        eventPublisher.publishEvent(new ReadingSessionChangedEvent(session, ChangeType.DELETED));
+    }
+
+    /**
+     * Checks the fields every new session needs; throws IllegalArgumentException naming the first problem.
+     */
+    static void validate(ReadingSession session) {
+        if (session.getStartPage() == null || session.getEndPage() == null || session.getDuration() == null) {
+            throw new IllegalArgumentException("Start page, end page and duration are required");
+        }
+        if (session.getStartPage() < 0 || session.getEndPage() < session.getStartPage()) {
+            throw new IllegalArgumentException("End page must not be before start page");
+        }
+        if (session.getDuration() < 0) {
+            throw new IllegalArgumentException("Duration must not be negative");
+        }
+        if (session.getRating() != null && (session.getRating() < 1 || session.getRating() > 5)) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+    }
+
+    private static ReadingActivity activityOf(ReadingSession session) {
+        return new ReadingActivity(session.getDate().toLocalDate(), session.getEndPage());
+    }
+}
@@ -0,0 +1,184 @@
+package com.booklog.service;
+
+import com.booklog.dto.ReadingStreakStats;
+import com.booklog.entity.ReadingStreak;
+import com.booklog.entity.User;
+import com.booklog.repository.ReadingRollupRepository;
+import com.booklog.repository.ReadingStreakRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Reading streaks kept as per-user state in reading_streaks.
+ * <p>
+ * The state is derived from the day rollups: the latest run of consecutive reading days and the
+ * longest run so far. Reading on the last active day or the day after only moves the end of the
+ * run. A backdated session or a removed reading day recomputes the runs around that day from the
+ * day rollups, in a window that grows only while the run reaches its edge. Whether the latest run
+ * is still current is decided on read, against today in the user's time zone.
+ */
+@Service
+public class ReadingStreakService {
+
+    private static final int RECOMPUTE_WINDOW_DAYS = 62;
+
+    private final ReadingStreakRepository streakRepository;
+    private final ReadingRollupRepository rollupRepository;
+    private final UserService userService;
+
+    public ReadingStreakService(ReadingStreakRepository streakRepository,
+                                ReadingRollupRepository rollupRepository,
+                                UserService userService) {
+        this.streakRepository = streakRepository;
+        this.rollupRepository = rollupRepository;
+        this.userService = userService;
+    }
+
+    /**
+     * Updates the user's streak after sessions on the given days changed, in the caller's
+     * transaction. The day rollups must already include the change.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDays(Long userId, Collection<LocalDate> days) {
+        ReadingStreak streak = streakRepository.findByUserId(userId).orElse(null);
+        if (streak == null) {
+            streakRepository.save(compute(userId));
+            return;
+        }
+
+        boolean recomputeLongest = false;
+        Set<LocalDate> changed = new TreeSet<>(days);
+        for (LocalDate day : changed) {
+            LocalDate last = streak.getLastActiveDay();
+            if (isActive(userId, day)) {
+                if (last == null || day.isAfter(last)) {
+                    if (last == null || !day.equals(last.plusDays(1))) {
+                        streak.setRunStart(day);
+                    }
+                    streak.setLastActiveDay(day);
+                } else if (day.isBefore(streak.getRunStart())) {
+                    // Backdated: the day may join older runs, and the latest run when it closes the gap before it.
+                    // Later days of the same change are already active, so the run may reach past the last day
+                    Run run = runAround(userId, day, Set.of());
+                    if (!run.end().isBefore(last)) {
+                        streak.setRunStart(run.start());
+                    }
+                    streak.setLongestStreak(Math.max(streak.getLongestStreak(), run.length()));
+                }
+            } else {
+                if (last != null && !day.isAfter(last) && !day.isBefore(streak.getRunStart())) {
+                    LocalDate newLast = day.equals(last) ? rollupRepository.findLastActiveDayBefore(userId, day) : last;
+                    streak.setRunStart(newLast != null ? runAround(userId, newLast, Set.of()).start() : null);
+                    streak.setLastActiveDay(newLast);
+                }
+                // The run the day belonged to was split; only a split of the longest run needs a full recompute.
+                // The other changed days may have been in that run too, so they count as active here
+                if (runAround(userId, day, changed).length() >= streak.getLongestStreak()) {
+                    recomputeLongest = true;
+                }
+            }
+            streak.setLongestStreak(Math.max(streak.getLongestStreak(), latestRunLength(streak)));
+        }
+
+        if (recomputeLongest) {
+            streak.setLongestStreak(compute(userId).getLongestStreak());
+        }
+        streakRepository.save(streak);
+    }
+
+    /**
+     * Drops the state of users whose day rollups were rebuilt; it is derived again on next use.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reset(Collection<Long> userIds) {
+        streakRepository.deleteByUserIdIn(userIds);
+    }
+
+    /**
+     * Returns the user's streak from the stored state; sessions are not read.
+     */
+    public ReadingStreakStats getStreak(Long userId) {
+        User user = userService.getUserById(userId);
+        ZoneId zone = userService.getZone(user);
+        LocalDate today = LocalDate.now(zone);
+
+        ReadingStreak streak = streakRepository.findByUserId(userId).orElseGet(() -> compute(userId));
+        LocalDate last = streak.getLastActiveDay();
+        // A run that ended yesterday can still be continued today
+        boolean current = last != null && !last.isBefore(today.minusDays(1));
+        return new ReadingStreakStats(
+                current ? latestRunLength(streak) : 0,
+                streak.getLongestStreak(),
+                last,
+                last != null && !last.isBefore(today),
+                zone.getId());
+    }
+
+    // Full scan of the user's day rollups, for users without state and splits of the longest run
+    private ReadingStreak compute(Long userId) {
+        ReadingStreak streak = ReadingStreak.builder().userId(userId).build();
+        int longest = 0;
+        LocalDate previous = null;
+        for (LocalDate day : rollupRepository.findAllActiveDays(userId)) {
+            if (previous == null || !day.equals(previous.plusDays(1))) {
+                streak.setRunStart(day);
+            }
+            streak.setLastActiveDay(day);
+            longest = Math.max(longest, latestRunLength(streak));
+            previous = day;
+        }
+        streak.setLongestStreak(longest);
+        return streak;
+    }
+
+    private boolean isActive(Long userId, LocalDate day) {
+        return !rollupRepository.findActiveDays(userId, day, day).isEmpty();
+    }
+
+    // The run of consecutive days through a day, counting alsoActive as active
+    private Run runAround(Long userId, LocalDate day, Set<LocalDate> alsoActive) {
+        int window = RECOMPUTE_WINDOW_DAYS;
+        while (true) {
+            LocalDate from = day.minusDays(window);
+            LocalDate to = day.plusDays(window);
+            Set<LocalDate> active = new HashSet<>(rollupRepository.findActiveDays(userId, from, to));
+            active.addAll(alsoActive);
+
+            LocalDate start = day;
+            while (active.contains(start.minusDays(1))) {
+                start = start.minusDays(1);
+            }
+            LocalDate end = day;
+            while (active.contains(end.plusDays(1))) {
+                end = end.plusDays(1);
+            }
+            if (start.isAfter(from) && end.isBefore(to)) {
+                return new Run(start, end);
+            }
+            window *= 4;
+        }
+    }
+
+    private static int latestRunLength(ReadingStreak streak) {
+        if (streak.getLastActiveDay() == null) {
+            return 0;
+        }
+        return (int) ChronoUnit.DAYS.between(streak.getRunStart(), streak.getLastActiveDay()) + 1;
+    }
+
+    private record Run(LocalDate start, LocalDate end) {
+
+        private int length() {
+            return (int) ChronoUnit.DAYS.between(start, end) + 1;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.booklog.service;
+
+import com.booklog.entity.LibraryBook;
+import com.booklog.entity.LibraryBook.BookStatus;
+import com.booklog.repository.LibraryBookRepository;
+import com.booklog.util.UserCache;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * The most recently read READING entries of each user, newest first.
+ * <p>
+ * A user's list is loaded on first use with one id-only query, kept for the most recently used
+ * users, and updated after each committed status or progress change, so the home screen does not
+ * sort READING rows on every load. When an entry leaves a list that may not hold all of the user's
+ * READING entries, the list is dropped and loaded again on the next read.
+ */
+@Service
+public class RecentlyReadCache {
+
+    public static final int CAPACITY = 5;
+
+    private static final int MAX_CACHED_USERS = 10000;
+
+    private static final Comparator<Entry> NEWEST_FIRST = Comparator
+            .comparing(Entry::lastReadDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Comparator.comparingLong(Entry::sequence).reversed());
+
+    private final LibraryBookRepository libraryBookRepository;
+
+    private final UserCache<Long, RecentList> lists = UserCache.perUser(MAX_CACHED_USERS);
+
+    // Orders entries read on the same day; later touches rank higher
+    private final AtomicLong sequence = new AtomicLong();
+
+    public RecentlyReadCache(LibraryBookRepository libraryBookRepository) {
+        this.libraryBookRepository = libraryBookRepository;
+    }
+
+    /**
+     * Returns the ids of the user's most recently read READING entries, newest first.
+     */
+    public List<Long> getLibraryBookIds(Long userId) {
+        RecentList list = getList(userId);
+        synchronized (list) {
+            return list.entries.stream().map(Entry::libraryBookId).toList();
+        }
+    }
+
+    /**
+     * Reflects the entry's status and last read date once the surrounding transaction commits.
+     */
+    public void update(Long userId, LibraryBook libraryBook) {
+        Long libraryBookId = libraryBook.getId();
+        Long bookId = libraryBook.getBook().getId();
+        LocalDate lastReadDate = libraryBook.getLastReadDate();
+        boolean reading = libraryBook.getStatus() == BookStatus.READING;
+        afterCommit(userId, list -> {
+            if (reading) {
+                list.put(libraryBookId, bookId, lastReadDate);
+            } else {
+                list.remove(libraryBookId);
+            }
+        });
+    }
+
+    public void remove(Long userId, Long libraryBookId) {
+        afterCommit(userId, list -> list.remove(libraryBookId));
+    }
+
+    /**
+     * Moves an entry read today to the front, for progress that is buffered rather than committed.
+     * Entries not in the list may not be READING, so the list is dropped instead.
+     */
+    public void touch(Long userId, Long bookId) {
+        lists.changed(userId);
+        RecentList list = lists.get(userId);
+        if (list == null) {
+            return;
+        }
+
+        synchronized (list) {
+            Entry entry = list.entries.stream().filter(e -> e.bookId().equals(bookId)).findFirst().orElse(null);
+            if (entry == null) {
+                lists.remove(userId, list);
+            } else {
+                list.put(entry.libraryBookId(), bookId, LocalDate.now());
+            }
+        }
+    }
+
+    private RecentList getList(Long userId) {
+        return lists.getOrLoad(userId, this::loadList);
+    }
+
+    private RecentList loadList(Long userId) {
+        List<Object[]> rows = libraryBookRepository.findRecentlyReadByUserId(
+                userId, BookStatus.READING, PageRequest.of(0, CAPACITY));
+        RecentList list = new RecentList(rows.size() < CAPACITY);
+        // Rows come newest first, so earlier rows get higher sequence numbers
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            Object[] row = rows.get(i);
+            list.entries.add(new Entry((Long) row[0], (Long) row[1], (LocalDate) row[2], sequence.incrementAndGet()));
+        }
+        list.entries.sort(NEWEST_FIRST);
+        return list;
+    }
+
+    private void afterCommit(Long userId, Consumer<RecentList> change) {
+        lists.afterCommit(userId, () -> {
+            RecentList list = lists.get(userId);
+            if (list != null) {
+                synchronized (list) {
+                    change.accept(list);
+                    if (list.stale) {
+                        lists.remove(userId, list);
+                    }
+                }
+            }
+        });
+    }
+
+    private class RecentList {
+        private final List<Entry> entries = new ArrayList<>(CAPACITY + 1);
+        // True while the list holds every READING entry of the user
+        private boolean complete;
+        // Set when an entry left an incomplete list, whose next entry is unknown
+        private boolean stale;
+
+        private RecentList(boolean complete) {
+            this.complete = complete;
+        }
+
+        private void put(Long libraryBookId, Long bookId, LocalDate lastReadDate) {
+            Entry previous = find(libraryBookId);
+            // Saving without reading keeps the entry's rank among same-day reads
+            long rank = previous != null && Objects.equals(previous.lastReadDate(), lastReadDate)
+                    ? previous.sequence()
+                    : sequence.incrementAndGet();
+            entries.remove(previous);
+            entries.add(new Entry(libraryBookId, bookId, lastReadDate, rank));
+            entries.sort(NEWEST_FIRST);
+            if (entries.size() > CAPACITY) {
+                entries.remove(entries.size() - 1);
+                complete = false;
+            }
+        }
+
+        private void remove(Long libraryBookId) {
+            if (entries.remove(find(libraryBookId)) && !complete) {
+                stale = true;
+            }
+        }
+
+        private Entry find(Long libraryBookId) {
+            for (Entry entry : entries) {
+                if (entry.libraryBookId().equals(libraryBookId)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+    }
+
+    private record Entry(Long libraryBookId, Long bookId, LocalDate lastReadDate, long sequence) {
+    }
+}
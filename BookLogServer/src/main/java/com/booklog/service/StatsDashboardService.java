@@ -0,0 +1,219 @@
+package com.booklog.service;
+
+import com.booklog.dto.BookReadingTotal;
+import com.booklog.dto.HighlightSummary;
+import com.booklog.dto.LibraryStatsSummary;
+import com.booklog.dto.MonthlyCount;
+import com.booklog.dto.ReadingStreakStats;
+import com.booklog.dto.ReadingTimeStats;
+import com.booklog.dto.StatsDashboard;
+import com.booklog.entity.Book;
+import com.booklog.entity.ReadingRollup.Period;
+import com.booklog.entity.User;
+import com.booklog.event.ReadingHighlightChangedEvent;
+import com.booklog.event.ReadingSessionChangedEvent;
+import com.booklog.repository.BookRepository;
+import com.booklog.repository.ReadingGoalRepository;
+import com.booklog.repository.ReadingHighlightRepository;
+import com.booklog.repository.ReadingSessionRepository;
+import com.booklog.util.UserCache;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Everything the statistics screen shows, assembled in one call.
+ * <p>
+ * The user is loaded once and each section runs in its own read-only transaction on a bounded
+ * pool, so the dashboard takes about as long as its slowest query. A section that fails or does
+ * not finish within the timeout is left null and listed as unavailable. Complete dashboards are
+ * cached per user under a key made of the user's version stamp, a counter bumped by session and
+ * highlight changes, and the user's current date, so any write or a new day assembles it again.
+ */
+@Service
+public class StatsDashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatsDashboardService.class);
+
+    private static final int MAX_CACHED_USERS = 10000;
+    private static final int MOST_READ_BOOKS = 5;
+    private static final int RECENT_HIGHLIGHTS = 5;
+
+    private final LibraryBookService libraryBookService;
+    private final ReadingRollupService readingRollupService;
+    private final ReadingStreakService readingStreakService;
+    private final UserService userService;
+    private final VersionStampService versionStampService;
+    private final ReadingSessionRepository readingSessionRepository;
+    private final ReadingGoalRepository readingGoalRepository;
+    private final ReadingHighlightRepository readingHighlightRepository;
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ExecutorService executor;
+    private final long sectionTimeoutMillis;
+
+    private final UserCache<Long, CachedDashboard> dashboards = UserCache.perUser(MAX_CACHED_USERS);
+
+    // Sessions and highlights do not bump the version stamp, so their changes are counted here
+    private final Map<Long, Long> activityVersions = new ConcurrentHashMap<>();
+
+    public StatsDashboardService(LibraryBookService libraryBookService,
+                                 ReadingRollupService readingRollupService,
+                                 ReadingStreakService readingStreakService,
+                                 UserService userService,
+                                 VersionStampService versionStampService,
+                                 ReadingSessionRepository readingSessionRepository,
+                                 ReadingGoalRepository readingGoalRepository,
+                                 ReadingHighlightRepository readingHighlightRepository,
+                                 BookRepository bookRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${booklog.dashboard.threads:4}") int threads,
+                                 @Value("${booklog.dashboard.section-timeout-ms:2000}") long sectionTimeoutMillis) {
+        this.libraryBookService = libraryBookService;
+        this.readingRollupService = readingRollupService;
+        this.readingStreakService = readingStreakService;
+        this.userService = userService;
+        this.versionStampService = versionStampService;
+        this.readingSessionRepository = readingSessionRepository;
+        this.readingGoalRepository = readingGoalRepository;
+        this.readingHighlightRepository = readingHighlightRepository;
+        this.bookRepository = bookRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.executor = Executors.newFixedThreadPool(threads, r -> new Thread(r, "stats-dashboard"));
+        this.sectionTimeoutMillis = sectionTimeoutMillis;
+    }
+
+    public StatsDashboard getDashboard(Long userId) {
+        User user = userService.getUserById(userId);
+        LocalDate today = LocalDate.now(userService.getZone(user));
+        // Taken before any section reads, so a change committing meanwhile leaves the result under an old key
+        String key = versionStampService.getStamp(userId) + "-" + activityVersions.getOrDefault(userId, 0L) + "-" + today;
+        CachedDashboard cached = dashboards.get(userId);
+        if (cached != null && cached.key().equals(key)) {
+            return cached.dashboard();
+        }
+
+        Future<LibraryStatsSummary> library = submit(() -> libraryBookService.getLibraryStatsSummary(userId));
+        Future<ReadingTimeStats> thisWeek = submit(() -> readingRollupService.getReadingTime(
+                userId, Period.WEEK, ReadingRollupService.periodStart(Period.WEEK, today), today));
+        Future<ReadingTimeStats> thisMonth = submit(() -> readingRollupService.getReadingTime(
+                userId, Period.MONTH, ReadingRollupService.periodStart(Period.MONTH, today), today));
+        Future<ReadingTimeStats> thisYear = submit(() -> readingRollupService.getReadingTime(
+                userId, Period.MONTH, today.withDayOfYear(1), today));
+        Future<ReadingStreakStats> streak = submit(() -> readingStreakService.getStreak(userId));
+        Future<List<BookReadingTotal>> mostReadBooks = submit(() -> getMostReadBooks(user));
+        Future<List<MonthlyCount>> completedGoals = submit(() -> getCompletedGoalsByMonth(user));
+        Future<List<HighlightSummary>> recentHighlights = submit(() -> getRecentHighlights(user));
+
+        // Sections run concurrently, so they share one deadline
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMillis);
+        List<String> unavailable = new ArrayList<>();
+        StatsDashboard dashboard = new StatsDashboard(
+                today,
+                await("library", library, deadline, unavailable),
+                await("thisWeek", thisWeek, deadline, unavailable),
+                await("thisMonth", thisMonth, deadline, unavailable),
+                await("thisYear", thisYear, deadline, unavailable),
+                await("streak", streak, deadline, unavailable),
+                await("mostReadBooks", mostReadBooks, deadline, unavailable),
+                await("completedGoalsByMonth", completedGoals, deadline, unavailable),
+                await("recentHighlights", recentHighlights, deadline, unavailable),
+                unavailable);
+
+        if (unavailable.isEmpty()) {
+            dashboards.put(userId, new CachedDashboard(key, dashboard));
+        }
+        return dashboard;
+    }
+
+    @TransactionalEventListener
+    public void onSessionChanged(ReadingSessionChangedEvent event) {
+        activityVersions.merge(event.getSession().getUser().getId(), 1L, Long::sum);
+    }
+
+    @TransactionalEventListener
+    public void onHighlightChanged(ReadingHighlightChangedEvent event) {
+        activityVersions.merge(event.getHighlight().getUser().getId(), 1L, Long::sum);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private List<BookReadingTotal> getMostReadBooks(User user) {
+        List<Object[]> rows = readingSessionRepository.getMostReadBooks(user, PageRequest.of(0, MOST_READ_BOOKS));
+        Map<Long, Book> books = bookRepository.findAllById(rows.stream().map(row -> (Long) row[0]).toList()).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+        List<BookReadingTotal> totals = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Book book = books.get((Long) row[0]);
+            if (book != null) {
+                totals.add(new BookReadingTotal(book.getId(), book.getTitle(), book.getThumbnail(),
+                        ((Number) row[1]).longValue(), row[2] != null ? ((Number) row[2]).longValue() : 0));
+            }
+        }
+        return totals;
+    }
+
+    private List<MonthlyCount> getCompletedGoalsByMonth(User user) {
+        return readingGoalRepository.countCompletedGoalsByMonth(user).stream()
+                .map(row -> new MonthlyCount(
+                        YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()),
+                        ((Number) row[2]).longValue()))
+                .toList();
+    }
+
+    private List<HighlightSummary> getRecentHighlights(User user) {
+        return readingHighlightRepository.findRecentHighlights(user, PageRequest.of(0, RECENT_HIGHLIGHTS)).stream()
+                .map(highlight -> new HighlightSummary(highlight.getId(), highlight.getBook().getId(),
+                        highlight.getBook().getTitle(), highlight.getContent(), highlight.getPage(), highlight.getDate()))
+                .toList();
+    }
+
+    private <T> Future<T> submit(Supplier<T> section) {
+        return executor.submit(() -> readOnlyTransactionTemplate.execute(status -> section.get()));
+    }
+
+    private static <T> T await(String name, Future<T> section, long deadline, List<String> unavailable) {
+        try {
+            return section.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Dashboard section {} timed out", name);
+        } catch (ExecutionException e) {
+            log.warn("Dashboard section {} failed", name, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        section.cancel(true);
+        unavailable.add(name);
+        return null;
+    }
+
+    private record CachedDashboard(String key, StatsDashboard dashboard) {
+    }
+}
@@ -0,0 +1,255 @@
+package com.booklog.service;
+
+import com.booklog.dto.SyncMutation;
+import com.booklog.dto.SyncMutationResult;
+import com.booklog.dto.SyncMutationResult.Outcome;
+import com.booklog.entity.Book;
+import com.booklog.entity.ReadingHighlight;
+import com.booklog.entity.ReadingNote;
+import com.booklog.entity.ReadingSession;
+import com.booklog.repository.ProcessedMutationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays batches of mutations that clients queued while offline.
+ * <p>
+ * Operations are applied in order, a chunk per transaction, through the regular services so that
+ * counters, stats and the sync log stay consistent. The idempotency key of every applied operation
+ * is stored in the same transaction, so a batch that is retried after a lost response is skipped
+ * rather than applied twice. Keys are kept for {@code booklog.sync.mutation-retention-days}.
+ * Runs of consecutive session creations are inserted as one batch. When an operation fails, its
+ * chunk is rolled back and replayed one operation per transaction, so only the failing operations
+ * are reported as failed. An operation whose key was recorded meanwhile by a concurrent retry of
+ * the same batch is reported as a duplicate.
+ */
+@Service
+public class SyncMutationService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncMutationService.class);
+
+    private static final int CHUNK_SIZE = 100;
+
+    private final ProcessedMutationRepository processedMutationRepository;
+    private final LibraryBookService libraryBookService;
+    private final ReadingNoteService readingNoteService;
+    private final ReadingHighlightService readingHighlightService;
+    private final ReadingSessionService readingSessionService;
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionDays;
+
+    public SyncMutationService(ProcessedMutationRepository processedMutationRepository,
+                               LibraryBookService libraryBookService,
+                               ReadingNoteService readingNoteService,
+                               ReadingHighlightService readingHighlightService,
+                               ReadingSessionService readingSessionService,
+                               UserService userService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${booklog.sync.mutation-retention-days:30}") int retentionDays) {
+        this.processedMutationRepository = processedMutationRepository;
+        this.libraryBookService = libraryBookService;
+        this.readingNoteService = readingNoteService;
+        this.readingHighlightService = readingHighlightService;
+        this.readingSessionService = readingSessionService;
+        this.userService = userService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Applies the mutations in order and returns one result per mutation, in the same order.
+     */
+    public List<SyncMutationResult> applyMutations(Long userId, List<SyncMutation> mutations) {
+        SyncMutationResult[] results = new SyncMutationResult[mutations.size()];
+
+        // Keys applied by an earlier request, then duplicates and invalid operations within this one
+        Map<String, Long> processed = processedMutationRepository.findByKeys(userId,
+                mutations.stream().map(SyncMutation::getIdempotencyKey).toList());
+        Map<String, Integer> firstIndex = new HashMap<>();
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < mutations.size(); i++) {
+            SyncMutation mutation = mutations.get(i);
+            String key = mutation.getIdempotencyKey();
+            if (processed.containsKey(key)) {
+                results[i] = new SyncMutationResult(key, Outcome.DUPLICATE, processed.get(key), null);
+            } else if (firstIndex.putIfAbsent(key, i) == null) {
+                String error = validate(mutation);
+                if (error != null) {
+                    results[i] = new SyncMutationResult(key, Outcome.FAILED, null, error);
+                } else {
+                    pending.add(i);
+                }
+            }
+        }
+
+        // Sessions without a date are dated now in the user's zone, looked up before any chunk transaction
+        LocalDateTime now = LocalDateTime.now(userService.getZone(userId));
+        for (int start = 0; start < pending.size(); start += CHUNK_SIZE) {
+            List<Integer> chunk = pending.subList(start, Math.min(start + CHUNK_SIZE, pending.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> applyChunk(userId, mutations, chunk, now, results));
+            } catch (RuntimeException e) {
+                log.debug("Mutation chunk of user {} failed, replaying one by one: {}", userId, e.getMessage());
+                for (int index : chunk) {
+                    applyOne(userId, mutations.get(index), index, now, results);
+                }
+            }
+        }
+
+        // Repeats of a key within this request report the outcome of its first occurrence
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                SyncMutationResult first = results[firstIndex.get(mutations.get(i).getIdempotencyKey())];
+                results[i] = first.getOutcome() == Outcome.APPLIED
+                        ? new SyncMutationResult(first.getIdempotencyKey(), Outcome.DUPLICATE, first.getEntityId(), null)
+                        : first;
+            }
+        }
+        return List.of(results);
+    }
+
+    @Scheduled(cron = "${booklog.sync.mutation-prune-cron:0 15 4 * * *}")
+    public void pruneProcessedMutations() {
+        Integer removed = transactionTemplate.execute(status ->
+                processedMutationRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays)));
+        log.info("Removed {} idempotency keys older than {} days", removed, retentionDays);
+    }
+
+    private void applyChunk(Long userId, List<SyncMutation> mutations, List<Integer> chunk, LocalDateTime now,
+                            SyncMutationResult[] results) {
+        Long[] entityIds = new Long[chunk.size()];
+        for (int i = 0; i < chunk.size(); ) {
+            if (mutations.get(chunk.get(i)).getType() != SyncMutation.Type.CREATE_SESSION) {
+                entityIds[i] = apply(userId, mutations.get(chunk.get(i)), now);
+                i++;
+                continue;
+            }
+
+            // Consecutive sessions go in one batch; anything in between may depend on their order
+            int end = i;
+            List<ReadingSession> sessions = new ArrayList<>();
+            while (end < chunk.size() && mutations.get(chunk.get(end)).getType() == SyncMutation.Type.CREATE_SESSION) {
+                sessions.add(toSession(mutations.get(chunk.get(end)), now));
+                end++;
+            }
+            List<ReadingSession> created = readingSessionService.createSessions(userId, sessions);
+            for (int j = i; j < end; j++) {
+                entityIds[j] = created.get(j - i).getId();
+            }
+            i = end;
+        }
+
+        List<Object[]> keyRows = new ArrayList<>(chunk.size());
+        SyncMutationResult[] applied = new SyncMutationResult[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            String key = mutations.get(chunk.get(i)).getIdempotencyKey();
+            keyRows.add(new Object[]{key, entityIds[i]});
+            applied[i] = new SyncMutationResult(key, Outcome.APPLIED, entityIds[i], null);
+        }
+        processedMutationRepository.insert(userId, keyRows);
+
+        // Only published once every operation of the chunk succeeded
+        for (int i = 0; i < chunk.size(); i++) {
+            results[chunk.get(i)] = applied[i];
+        }
+    }
+
+    private void applyOne(Long userId, SyncMutation mutation, int index, LocalDateTime now,
+                          SyncMutationResult[] results) {
+        String key = mutation.getIdempotencyKey();
+        try {
+            Long entityId = transactionTemplate.execute(status -> {
+                Long id = apply(userId, mutation, now);
+                List<Object[]> keyRows = new ArrayList<>(1);
+                keyRows.add(new Object[]{key, id});
+                processedMutationRepository.insert(userId, keyRows);
+                return id;
+            });
+            results[index] = new SyncMutationResult(key, Outcome.APPLIED, entityId, null);
+        } catch (RuntimeException e) {
+            // A retry of the same batch running concurrently may have applied it first; its key insert then
+            // failed on the unique index, which SQLite does not report as a DuplicateKeyException
+            Map<String, Long> stored = processedMutationRepository.findByKeys(userId, List.of(key));
+            results[index] = stored.containsKey(key)
+                    ? new SyncMutationResult(key, Outcome.DUPLICATE, stored.get(key), null)
+                    : new SyncMutationResult(key, Outcome.FAILED, null, e.getMessage());
+        }
+    }
+
+    private Long apply(Long userId, SyncMutation mutation, LocalDateTime now) {
+        return switch (mutation.getType()) {
+            case UPDATE_PROGRESS -> libraryBookService
+                    .updateBookProgress(userId, mutation.getBookId(), mutation.getProgress())
+                    .getId();
+            case CREATE_SESSION -> readingSessionService
+                    .createSession(userId, mutation.getBookId(), toSession(mutation, now))
+                    .getId();
+            case CREATE_NOTE -> readingNoteService
+                    .createNote(userId, mutation.getBookId(), ReadingNote.builder()
+                            .content(mutation.getContent())
+                            .page(mutation.getPage())
+                            .chapter(mutation.getChapter())
+                            .date(mutation.getDate())
+                            .tags(mutation.getTags() != null ? new HashSet<>(mutation.getTags()) : new HashSet<>())
+                            .images(new ArrayList<>())
+                            .build())
+                    .getId();
+            case CREATE_HIGHLIGHT -> readingHighlightService
+                    .createHighlight(userId, mutation.getBookId(), ReadingHighlight.builder()
+                            .content(mutation.getContent())
+                            .page(mutation.getPage())
+                            .location(mutation.getLocation())
+                            .color(mutation.getColor())
+                            .note(mutation.getNote())
+                            .date(mutation.getDate())
+                            .tags(mutation.getTags() != null ? new HashSet<>(mutation.getTags()) : new HashSet<>())
+                            .build())
+                    .getId();
+        };
+    }
+
+    private static ReadingSession toSession(SyncMutation mutation, LocalDateTime now) {
+        Book book = new Book();
+        book.setId(mutation.getBookId());
+        return ReadingSession.builder()
+                .book(book)
+                .date(mutation.getDate() != null ? mutation.getDate() : now)
+                .startPage(mutation.getStartPage())
+                .endPage(mutation.getEndPage())
+                .duration(mutation.getDuration())
+                .notes(mutation.getNote())
+                .build();
+    }
+
+    // Checks the fields each type needs, so that most bad operations never cost a rollback
+    private static String validate(SyncMutation mutation) {
+        return switch (mutation.getType()) {
+            case UPDATE_PROGRESS -> mutation.getProgress() == null ? "Progress is required" : null;
+            case CREATE_SESSION -> {
+                try {
+                    ReadingSessionService.validate(toSession(mutation, null));
+                    yield null;
+                } catch (IllegalArgumentException e) {
+                    yield e.getMessage();
+                }
+            }
+            case CREATE_NOTE -> mutation.getContent() == null || mutation.getContent().isBlank()
+                    ? "Content is required" : null;
+            case CREATE_HIGHLIGHT -> mutation.getContent() == null || mutation.getContent().isBlank()
+                    || mutation.getPage() == null ? "Content and page are required" : null;
+        };
+    }
+}
@@ -0,0 +1,221 @@
+package com.booklog.service;
+
+import com.booklog.entity.BaseEntity;
+import com.booklog.entity.SyncChange;
+import com.booklog.entity.SyncChange.ChangeKind;
+import com.booklog.entity.SyncChange.EntityType;
+import com.booklog.repository.LibraryBookRepository;
+import com.booklog.repository.ReadingGoalRepository;
+import com.booklog.repository.ReadingHighlightRepository;
+import com.booklog.repository.ReadingNoteRepository;
+import com.booklog.repository.ReadingSessionRepository;
+import com.booklog.repository.SyncChangeRepository;
+import com.booklog.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delta sync for offline clients.
+ * <p>
+ * Every write of a library entry, session, note, highlight or goal appends an entry to the owner's
+ * change log in the same transaction. A client passes the token from its last sync and receives
+ * only the entities whose latest entry is newer, so the cost follows the number of changes rather
+ * than the size of the account. Tokens are log ids; SQLite has a single writer, so ids become
+ * visible in increasing order and no committed change can appear below a token already handed out.
+ */
+@Service
+public class SyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncService.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final SyncChangeRepository syncChangeRepository;
+    private final UserRepository userRepository;
+    private final LibraryBookRepository libraryBookRepository;
+    private final ReadingSessionRepository readingSessionRepository;
+    private final ReadingNoteRepository readingNoteRepository;
+    private final ReadingHighlightRepository readingHighlightRepository;
+    private final ReadingGoalRepository readingGoalRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public SyncService(SyncChangeRepository syncChangeRepository,
+                       UserRepository userRepository,
+                       LibraryBookRepository libraryBookRepository,
+                       ReadingSessionRepository readingSessionRepository,
+                       ReadingNoteRepository readingNoteRepository,
+                       ReadingHighlightRepository readingHighlightRepository,
+                       ReadingGoalRepository readingGoalRepository,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager) {
+        this.syncChangeRepository = syncChangeRepository;
+        this.userRepository = userRepository;
+        this.libraryBookRepository = libraryBookRepository;
+        this.readingSessionRepository = readingSessionRepository;
+        this.readingNoteRepository = readingNoteRepository;
+        this.readingHighlightRepository = readingHighlightRepository;
+        this.readingGoalRepository = readingGoalRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    public void record(Long userId, EntityType entityType, Long entityId, ChangeKind kind) {
+        syncChangeRepository.append(userId, entityType, entityId, kind);
+    }
+
+    /**
+     * Records changes of entities written outside JPA.
+     */
+    public void recordAll(Long userId, EntityType entityType, List<Long> entityIds, ChangeKind kind) {
+        syncChangeRepository.appendAll(userId, entityType, entityIds, kind);
+    }
+
+    /**
+     * Records upserts of library entries written outside JPA, given as {userId, bookId} rows.
+     */
+    public void recordLibraryBooks(List<Object[]> userBookRows) {
+        syncChangeRepository.appendLibraryBooks(userBookRows);
+    }
+
+    /**
+     * Parses a sync token; a missing token means a full sync.
+     */
+    public long parseToken(String token) {
+        if (token == null || token.isBlank()) {
+            return 0L;
+        }
+        try {
+            long since = Long.parseLong(token);
+            if (since < 0) {
+                throw new IllegalArgumentException("Invalid sync token: " + token);
+            }
+            return since;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+    }
+
+    /**
+     * Writes the user's changes after since as
+     * {@code {"changes":[{"type","id","kind","data"}...],"nextToken":"..."}}, one chunk of the log at
+     * a time. Deleted entities are sent as tombstones without data.
+     */
+    public void writeChanges(Long userId, long since, OutputStream out) throws IOException {
+        long upTo = Math.max(since, syncChangeRepository.findMaxId(userId));
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("changes");
+
+            long after = since;
+            while (after < upTo) {
+                long chunkStart = after;
+                Long last = readOnlyTransactionTemplate.execute(status -> writeChunk(generator, userId, chunkStart, upTo));
+                if (last == null) {
+                    break;
+                }
+                after = last;
+                generator.flush();
+            }
+
+            generator.writeEndArray();
+            generator.writeStringField("nextToken", Long.toString(upTo));
+            generator.writeEndObject();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedIfEmpty() {
+        if (!syncChangeRepository.isEmpty()) {
+            return;
+        }
+        Integer seeded = transactionTemplate.execute(status -> syncChangeRepository.seed());
+        log.info("Seeded sync change log with {} existing entities", seeded);
+    }
+
+    @Scheduled(cron = "${booklog.sync.compact-cron:0 0 4 * * *}")
+    public void compact() {
+        long start = System.currentTimeMillis();
+        Integer removed = transactionTemplate.execute(status -> syncChangeRepository.compact());
+        log.info("Removed {} superseded sync changes in {} ms", removed, System.currentTimeMillis() - start);
+    }
+
+    // Returns the id of the last entry written, or null when the range is exhausted
+    private Long writeChunk(JsonGenerator generator, Long userId, long after, long upTo) {
+        List<SyncChange> changes = syncChangeRepository.findLatest(userId, after, upTo, CHUNK_SIZE);
+        if (changes.isEmpty()) {
+            return null;
+        }
+
+        // Loading the user first lets the entities' user associations resolve to it instead of proxies
+        userRepository.findById(userId);
+
+        Map<EntityType, List<Long>> upserted = new EnumMap<>(EntityType.class);
+        for (SyncChange change : changes) {
+            if (change.getKind() == ChangeKind.UPSERT) {
+                upserted.computeIfAbsent(change.getEntityType(), type -> new ArrayList<>()).add(change.getEntityId());
+            }
+        }
+        Map<EntityType, Map<Long, ? extends BaseEntity>> entities = new EnumMap<>(EntityType.class);
+        upserted.forEach((type, ids) -> entities.put(type, load(userId, type, ids)));
+
+        try {
+            for (SyncChange change : changes) {
+                BaseEntity entity = entities.getOrDefault(change.getEntityType(), Map.of()).get(change.getEntityId());
+                generator.writeStartObject();
+                generator.writeStringField("type", change.getEntityType().name());
+                generator.writeNumberField("id", change.getEntityId());
+                // An upserted entity that is gone was removed without passing through JPA
+                generator.writeStringField("kind", entity != null ? ChangeKind.UPSERT.name() : ChangeKind.DELETE.name());
+                if (entity != null) {
+                    generator.writeFieldName("data");
+                    generator.writeObject(entity);
+                }
+                generator.writeEndObject();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return changes.get(changes.size() - 1).getId();
+    }
+
+    private Map<Long, ? extends BaseEntity> load(Long userId, EntityType type, Collection<Long> ids) {
+        return switch (type) {
+            case LIBRARY_BOOK -> byId(libraryBookRepository.findByUserIdAndIdIn(userId, ids));
+            case READING_SESSION -> byId(readingSessionRepository.findByUserIdAndIdIn(userId, ids));
+            case READING_NOTE -> byId(readingNoteRepository.findByUserIdAndIdIn(userId, ids));
+            case READING_HIGHLIGHT -> byId(readingHighlightRepository.findByUserIdAndIdIn(userId, ids));
+            case READING_GOAL -> byId(readingGoalRepository.findByUserIdAndIdIn(userId, ids));
+        };
+    }
+
+    private static <T extends BaseEntity> Map<Long, T> byId(List<T> entities) {
+        Map<Long, T> byId = new HashMap<>();
+        for (T entity : entities) {
+            byId.put(entity.getId(), entity);
+        }
+        return byId;
+    }
+}
@@ -7,7 +7,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 @Service
@@ -65,11 +67,34 @@ public class UserService {
             user.setPhotoUrl(userDetails.getPhotoUrl());
         }
         
+        if (userDetails.getTimeZone() != null) {
+            user.setTimeZone(zoneOf(userDetails.getTimeZone()).getId());
+        }
+        
         // Don't update email and password here, use separate methods for that
         
         return userRepository.save(user);
     }
 
+    /**
+     * Returns the user's time zone, or the server's when the user has not set one.
+     */
+    public ZoneId getZone(User user) {
+        return user.getTimeZone() != null ? zoneOf(user.getTimeZone()) : ZoneId.systemDefault();
+    }
+
+    public ZoneId getZone(Long id) {
+        return getZone(getUserById(id));
+    }
+
+    private static ZoneId zoneOf(String timeZone) {
+        try {
+            return ZoneId.of(timeZone);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid time zone: " + timeZone);
+        }
+    }
+
     @Transactional
     public void deleteUser(Long id) {
         User user = getUserById(id);
@@ -0,0 +1,49 @@
+package com.booklog.service;
+
+import com.booklog.event.BookChangedEvent;
+import com.booklog.util.AfterCommit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory version stamps for conditional GETs.
+ * <p>
+ * Each user has a counter that is bumped after any change to their library, profile or goals
+ * commits, and a catalog counter is bumped on every book change because library responses embed
+ * books. Stamps start from the boot time, so ETags issued before a restart never match afterwards.
+ */
+@Service
+public class VersionStampService {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Long, Long> userVersions = new ConcurrentHashMap<>();
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    /**
+     * Returns the current stamp of everything the user's responses depend on.
+     */
+    public String getStamp(Long userId) {
+        return userId + "-" + epoch + "-" + userVersions.getOrDefault(userId, 0L) + "-" + catalogVersion.get();
+    }
+
+    /**
+     * Bumps the user's version once the current transaction commits, or immediately without one.
+     * Bumping before commit could let a concurrent read cache pre-commit data under the new stamp.
+     */
+    public void bumpAfterCommit(Long userId) {
+        AfterCommit.run(() -> bump(userId));
+    }
+
+    public void bump(Long userId) {
+        userVersions.merge(userId, 1L, Long::sum);
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        catalogVersion.incrementAndGet();
+    }
+}
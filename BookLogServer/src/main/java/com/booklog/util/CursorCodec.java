@@ -0,0 +1,58 @@
+package com.booklog.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursors. A cursor encodes the sort key and id of the last row of a page;
+ * the next page seeks past that (sort key, id) pair instead of using an offset.
+ */
+public final class CursorCodec {
+
+    private static final char SEPARATOR = '|';
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Object sortKey, Long id) {
+        String raw = sortKey + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode}.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new Cursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public record Cursor(String sortKey, Long id) {
+
+        public LocalDate dateKey() {
+            try {
+                return LocalDate.parse(sortKey);
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid cursor sort key: " + sortKey);
+            }
+        }
+
+        public LocalDateTime dateTimeKey() {
+            try {
+                return LocalDateTime.parse(sortKey);
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid cursor sort key: " + sortKey);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.booklog.util;
+
+/**
+ * ISBN normalization. Every valid ISBN-10 or ISBN-13 maps to a single canonical
+ * ISBN-13 made only of digits, so one indexed column serves lookups by either form.
+ */
+public final class IsbnUtils {
+
+    private IsbnUtils() {
+    }
+
+    /**
+     * Returns the canonical ISBN-13 for an ISBN-10 or ISBN-13 (hyphens and spaces allowed),
+     * or null if the value is not a valid ISBN.
+     */
+    public static String normalize(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+
+        String compact = isbn.replaceAll("[\\s-]", "").toUpperCase();
+        if (compact.length() == 13 && isValidIsbn13(compact)) {
+            return compact;
+        }
+        if (compact.length() == 10 && isValidIsbn10(compact)) {
+            return toIsbn13(compact);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the canonical ISBN for a book, preferring its ISBN-13.
+     */
+    public static String canonical(String isbn13, String isbn10) {
+        String normalized = normalize(isbn13);
+        return normalized != null ? normalized : normalize(isbn10);
+    }
+
+    private static boolean isValidIsbn13(String isbn) {
+        int sum = 0;
+        for (int i = 0; i < 13; i++) {
+            char c = isbn.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            sum += (c - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return sum % 10 == 0;
+    }
+
+    private static boolean isValidIsbn10(String isbn) {
+        int sum = 0;
+        for (int i = 0; i < 10; i++) {
+            char c = isbn.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c == 'X' && i == 9) {
+                digit = 10;
+            } else {
+                return false;
+            }
+            sum += digit * (10 - i);
+        }
+        return sum % 11 == 0;
+    }
+
+    private static String toIsbn13(String isbn10) {
+        String body = "978" + isbn10.substring(0, 9);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (body.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return body + ((10 - sum % 10) % 10);
+    }
+}
@@ -0,0 +1,126 @@
+package com.booklog.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * In-memory values owned by users, kept for the most recently used keys.
+ * <p>
+ * Values are loaded from the database on first use and then kept current by changes applied once
+ * their transaction commits. Every change bumps its user's modification count, so a value loaded
+ * while a change of the same user committed is served but not cached.
+ *
+ * @param <K> the cache key, which names the owning user
+ * @param <V> the cached value
+ */
+public class UserCache<K, V> {
+
+    private final Map<K, V> values;
+    private final Map<Long, Long> modCounts = new ConcurrentHashMap<>();
+    private final Function<K, Long> userOf;
+
+    public UserCache(int maxEntries, Function<K, Long> userOf) {
+        this.values = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        this.userOf = userOf;
+    }
+
+    /**
+     * Creates a cache with one value per user, keyed by user id.
+     */
+    public static <V> UserCache<Long, V> perUser(int maxEntries) {
+        return new UserCache<>(maxEntries, Function.identity());
+    }
+
+    public V get(K key) {
+        return values.get(key);
+    }
+
+    public V getOrLoad(K key, Function<K, V> loader) {
+        return getOrLoad(key, loader, value -> true);
+    }
+
+    /**
+     * Returns the cached value, or loads one. The loaded value is cached only if it is cacheable
+     * and no change of its user committed while it was loading.
+     */
+    public V getOrLoad(K key, Function<K, V> loader, Predicate<V> cacheable) {
+        V value = values.get(key);
+        if (value != null) {
+            return value;
+        }
+
+        Long userId = userOf.apply(key);
+        long modCount = modCounts.getOrDefault(userId, 0L);
+        value = loader.apply(key);
+        if (!cacheable.test(value) || modCounts.getOrDefault(userId, 0L) != modCount) {
+            return value;
+        }
+
+        V loaded = values.putIfAbsent(key, value);
+        if (loaded != null) {
+            return loaded;
+        }
+        // A change may have committed between the check and the put
+        if (modCounts.getOrDefault(userId, 0L) != modCount) {
+            values.remove(key, value);
+        }
+        return value;
+    }
+
+    public V computeIfAbsent(K key, Function<K, V> factory) {
+        return values.computeIfAbsent(key, factory);
+    }
+
+    public void put(K key, V value) {
+        values.put(key, value);
+    }
+
+    public void remove(K key) {
+        values.remove(key);
+    }
+
+    public void remove(K key, V value) {
+        values.remove(key, value);
+    }
+
+    /**
+     * Counts a change of the user's data, so values loading meanwhile are not cached.
+     */
+    public void changed(Long userId) {
+        modCounts.merge(userId, 1L, Long::sum);
+    }
+
+    /**
+     * Counts a change of the user's data and applies it to the cached values once the surrounding
+     * transaction commits, or immediately without one.
+     */
+    public void afterCommit(Long userId, Runnable change) {
+        AfterCommit.run(() -> {
+            changed(userId);
+            change.run();
+        });
+    }
+
+    /**
+     * Counts a change of each user's data and drops their cached values.
+     */
+    public void evict(Collection<Long> userIds) {
+        Set<Long> evicted = new HashSet<>(userIds);
+        evicted.forEach(this::changed);
+        synchronized (values) {
+            values.keySet().removeIf(key -> evicted.contains(userOf.apply(key)));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.booklog.web;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET handler whose response depends only on the current user's data and the book catalog.
+ * Such handlers get an ETag from the user's version stamp and answer 304 Not Modified without running
+ * when the client already has the current version.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+}
@@ -0,0 +1,49 @@
+package com.booklog.web;
+
+import com.booklog.security.UserPrincipal;
+import com.booklog.service.VersionStampService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Answers conditional GETs for {@link ConditionalGet} handlers before the handler runs.
+ * The ETag combines the user's version stamp with a hash of the request URI and query,
+ * since different pages of the same resource share a stamp.
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final VersionStampService versionStampService;
+
+    public ConditionalGetInterceptor(VersionStampService versionStampService) {
+        this.versionStampService = versionStampService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !handlerMethod.hasMethodAnnotation(ConditionalGet.class)) {
+            return true;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            return true;
+        }
+
+        String target = request.getRequestURI() + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        String etag = "\"" + versionStampService.getStamp(principal.getId()) + "-"
+                + Integer.toHexString(target.hashCode()) + "\"";
+
+        // Clients must revalidate, and shared caches must not store per-user responses
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
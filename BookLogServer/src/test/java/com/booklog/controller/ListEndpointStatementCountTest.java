@@ -0,0 +1,161 @@
+package com.booklog.controller;
+
+import com.booklog.entity.Book;
+import com.booklog.entity.LibraryBook.BookStatus;
+import com.booklog.entity.ReadingHighlight;
+import com.booklog.entity.ReadingNote;
+import com.booklog.entity.ReadingSession;
+import com.booklog.entity.User;
+import com.booklog.security.JwtTokenProvider;
+import com.booklog.service.BookService;
+import com.booklog.service.LibraryBookService;
+import com.booklog.service.ReadingHighlightService;
+import com.booklog.service.ReadingNoteService;
+import com.booklog.service.ReadingSessionService;
+import com.booklog.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the fetch plan of list endpoints: a page must cost a fixed number of SQL statements,
+ * whatever its size, so element collections and books are never loaded one row at a time.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListEndpointStatementCountTest {
+
+    private static final int ENTRIES = 25;
+
+    // Authentication, user lookup, page query, count query and one batch per element collection
+    private static final long MAX_STATEMENTS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private LibraryBookService libraryBookService;
+    @Autowired
+    private ReadingNoteService readingNoteService;
+    @Autowired
+    private ReadingHighlightService readingHighlightService;
+    @Autowired
+    private ReadingSessionService readingSessionService;
+
+    private String token;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        File database = File.createTempFile("booklog-statements", ".db");
+        database.deleteOnExit();
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + database.getAbsolutePath());
+    }
+
+    @BeforeAll
+    void createEntries() {
+        User user = userService.createUser(User.builder()
+                .email("statements@booklog.test")
+                .name("Statements")
+                .password("password")
+                .authProvider(User.AuthProvider.EMAIL)
+                .build());
+        token = tokenProvider.generateTokenFromUserId(user.getId());
+
+        for (int i = 0; i < ENTRIES; i++) {
+            Book book = bookService.createBook(Book.builder()
+                    .title("Book " + i)
+                    .authors(new ArrayList<>(List.of("Author " + i, "Coauthor " + i)))
+                    .categories(new ArrayList<>(List.of("Fiction", "Category " + i)))
+                    .pageCount(300)
+                    .build());
+
+            libraryBookService.addBookToLibrary(user.getId(), book.getId(), BookStatus.READING);
+            libraryBookService.updateBookTags(user.getId(), book.getId(), List.of("tag" + i, "shared"));
+
+            readingNoteService.createNote(user.getId(), book.getId(), ReadingNote.builder()
+                    .content("Note " + i)
+                    .date(LocalDateTime.now().minusHours(i))
+                    .tags(new HashSet<>(Set.of("note" + i)))
+                    .images(new ArrayList<>(List.of("image" + i)))
+                    .build());
+
+            readingHighlightService.createHighlight(user.getId(), book.getId(), ReadingHighlight.builder()
+                    .content("Highlight " + i)
+                    .page(i + 1)
+                    .date(LocalDateTime.now().minusHours(i))
+                    .tags(new HashSet<>(Set.of("highlight" + i)))
+                    .build());
+
+            readingSessionService.createSession(user.getId(), book.getId(), ReadingSession.builder()
+                    .date(LocalDateTime.now().minusHours(i))
+                    .startPage(0)
+                    .endPage(10)
+                    .duration(30)
+                    .build());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/v1/library",
+            "/api/v1/library/scroll",
+            "/api/v1/notes",
+            "/api/v1/notes/scroll",
+            "/api/v1/highlights",
+            "/api/v1/highlights/scroll",
+            "/api/v1/sessions",
+            "/api/v1/sessions/scroll"
+    })
+    void pageCostsFixedNumberOfStatements(String endpoint) throws Exception {
+        long smallPage = countStatements(endpoint, 5);
+        long fullPage = countStatements(endpoint, 20);
+
+        assertThat(fullPage).as("statements for a page of 20 vs 5 on %s", endpoint).isEqualTo(smallPage);
+        assertThat(fullPage).as("statements for %s", endpoint).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    private long countStatements(String endpoint, int size) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get(endpoint)
+                        .param("size", Integer.toString(size))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        return statistics.getPrepareStatementCount();
+    }
+}
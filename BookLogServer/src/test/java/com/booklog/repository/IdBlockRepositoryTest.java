@@ -0,0 +1,88 @@
+package com.booklog.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks id block reservation against a SQLite file with the tables it touches.
+ */
+class IdBlockRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private IdBlockRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + tempDir.resolve("test.db"), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE id_blocks (name VARCHAR(64) PRIMARY KEY, next_id BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE reading_sessions (id INTEGER PRIMARY KEY)");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        repository = new IdBlockRepository(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void firstBlockStartsAboveExistingIds() {
+        insertSessions(1, 2, 3);
+
+        assertThat(allocate(5)).isEqualTo(4);
+        assertThat(allocate(2)).isEqualTo(9);
+    }
+
+    @Test
+    void blockStartsAboveRowsInsertedWithoutOne() {
+        long first = allocate(3);
+        insertSessions(first, first + 1, first + 2);
+        jdbcTemplate.update("INSERT INTO reading_sessions DEFAULT VALUES");
+
+        assertThat(allocate(2)).isEqualTo(5);
+    }
+
+    @Test
+    void rolledBackBlockIsReservedAgain() {
+        long first = allocate(3);
+        transactionTemplate.executeWithoutResult(status -> {
+            repository.allocate("reading_sessions", 10);
+            status.setRollbackOnly();
+        });
+
+        assertThat(allocate(3)).isEqualTo(first + 3);
+    }
+
+    @Test
+    void unknownTableIsRejected() {
+        assertThatThrownBy(() -> repository.allocate("users", 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private long allocate(int count) {
+        return transactionTemplate.execute(status -> repository.allocate("reading_sessions", count));
+    }
+
+    private void insertSessions(long... ids) {
+        for (long id : ids) {
+            jdbcTemplate.update("INSERT INTO reading_sessions (id) VALUES (?)", id);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.booklog.service;
+
+import com.booklog.dto.ReadingHeatmap;
+import com.booklog.dto.ReadingTimeBucket;
+import com.booklog.entity.ReadingRollup.Period;
+import com.booklog.repository.ReadingRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that cached heatmap years follow the day rollups, which are kept here as an in-memory map of
+ * minutes per user and day. No transaction is active, so deltas and evictions apply immediately.
+ */
+class ReadingHeatmapServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long OTHER_USER_ID = 2L;
+    private static final int YEAR = 2024;
+    private static final LocalDate DAY = LocalDate.of(YEAR, 3, 1);
+
+    private final Map<Long, Map<LocalDate, Long>> rollups = new HashMap<>();
+    private ReadingRollupRepository rollupRepository;
+    private ReadingHeatmapService service;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(ReadingRollupRepository.class);
+        when(rollupRepository.findRange(anyLong(), eq(Period.DAY), any(), any())).thenAnswer(inv -> {
+            LocalDate from = inv.getArgument(2);
+            LocalDate to = inv.getArgument(3);
+            return rollups.getOrDefault(inv.<Long>getArgument(0), Map.of()).entrySet().stream()
+                    .filter(day -> !day.getKey().isBefore(from) && !day.getKey().isAfter(to))
+                    .map(day -> new ReadingTimeBucket(day.getKey(), day.getValue(), 0, 1))
+                    .toList();
+        });
+
+        service = new ReadingHeatmapService(rollupRepository);
+    }
+
+    @Test
+    void deltaIsAppliedToACachedYear() {
+        read(USER_ID, DAY, 20);
+        assertThat(service.getHeatmap(USER_ID, YEAR).getTotalMinutes()).isEqualTo(20);
+
+        read(USER_ID, DAY, 30);
+        read(USER_ID, DAY.plusDays(1), 5);
+
+        ReadingHeatmap heatmap = service.getHeatmap(USER_ID, YEAR);
+        assertThat(heatmap.getTotalMinutes()).isEqualTo(55);
+        assertThat(heatmap.getActiveDays()).isEqualTo(2);
+        assertThat(heatmap.getMaxMinutes()).isEqualTo(50);
+        assertThat(heatmap.getLevels().charAt(DAY.getDayOfYear() - 1)).isEqualTo('3');
+        assertThat(heatmap.getLevels().charAt(DAY.getDayOfYear())).isEqualTo('1');
+        verify(rollupRepository, times(1)).findRange(eq(USER_ID), eq(Period.DAY), any(), any());
+    }
+
+    @Test
+    void deltaOfAnUncachedYearIsLeftToTheNextLoad() {
+        read(USER_ID, DAY, 20);
+        verify(rollupRepository, never()).findRange(anyLong(), any(), any(), any());
+
+        assertThat(service.getHeatmap(USER_ID, YEAR).getTotalMinutes()).isEqualTo(20);
+    }
+
+    @Test
+    void deltaAboveTheShortRangeEvictsTheYear() {
+        read(USER_ID, DAY, Short.MAX_VALUE - 10);
+        service.getHeatmap(USER_ID, YEAR);
+
+        read(USER_ID, DAY, 20);
+
+        // Capped days are not cached, so every later request reloads
+        assertThat(service.getHeatmap(USER_ID, YEAR).getMaxMinutes()).isEqualTo(Short.MAX_VALUE);
+        service.getHeatmap(USER_ID, YEAR);
+        verify(rollupRepository, times(3)).findRange(eq(USER_ID), eq(Period.DAY), any(), any());
+    }
+
+    @Test
+    void deltaBelowZeroEvictsTheYear() {
+        read(USER_ID, DAY, 20);
+        service.getHeatmap(USER_ID, YEAR);
+
+        // A delta from a year that was cached after its rollups were already lowered
+        rollups.get(USER_ID).put(DAY, 5L);
+        service.recordMinutes(USER_ID, Map.of(DAY, -30L));
+
+        assertThat(service.getHeatmap(USER_ID, YEAR).getTotalMinutes()).isEqualTo(5);
+        verify(rollupRepository, times(2)).findRange(eq(USER_ID), eq(Period.DAY), any(), any());
+    }
+
+    @Test
+    void backfillEvictsOnlyTheRebuiltUsers() {
+        read(USER_ID, DAY, 20);
+        read(OTHER_USER_ID, DAY, 10);
+        service.getHeatmap(USER_ID, YEAR);
+        service.getHeatmap(OTHER_USER_ID, YEAR);
+
+        // Rollups rebuilt behind the cache's back, without deltas
+        rollups.get(USER_ID).put(DAY, 90L);
+        rollups.get(OTHER_USER_ID).put(DAY, 90L);
+        service.evict(List.of(USER_ID));
+
+        assertThat(service.getHeatmap(USER_ID, YEAR).getTotalMinutes()).isEqualTo(90);
+        assertThat(service.getHeatmap(OTHER_USER_ID, YEAR).getTotalMinutes()).isEqualTo(10);
+    }
+
+    // Writes the rollup and reports its delta, as a committed session write does
+    private void read(Long userId, LocalDate day, long minutes) {
+        rollups.computeIfAbsent(userId, key -> new HashMap<>()).merge(day, minutes, Long::sum);
+        service.recordMinutes(userId, Map.of(day, minutes));
+    }
+}
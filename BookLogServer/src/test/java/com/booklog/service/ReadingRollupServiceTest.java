@@ -0,0 +1,115 @@
+package com.booklog.service;
+
+import com.booklog.entity.ReadingRollup.Period;
+import com.booklog.repository.ReadingRollupRepository;
+import com.booklog.service.ReadingRollupService.Contribution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks the rollup deltas {@link ReadingRollupService#recordChange} writes for session changes.
+ */
+class ReadingRollupServiceTest {
+
+    private static final Long USER_ID = 1L;
+    // A Wednesday
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 6);
+    private static final LocalDate WEEK = LocalDate.of(2024, 3, 4);
+    private static final LocalDate MONTH = LocalDate.of(2024, 3, 1);
+
+    private ReadingRollupRepository rollupRepository;
+    private ReadingStreakService readingStreakService;
+    private ReadingHeatmapService readingHeatmapService;
+    private ReadingRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(ReadingRollupRepository.class);
+        readingStreakService = mock(ReadingStreakService.class);
+        readingHeatmapService = mock(ReadingHeatmapService.class);
+        service = new ReadingRollupService(rollupRepository, readingStreakService, readingHeatmapService,
+                mock(PlatformTransactionManager.class), 1, 200);
+    }
+
+    @Test
+    void createdSessionAddsToEachPeriod() {
+        service.recordChange(USER_ID, List.of(), List.of(new Contribution(DAY, 30, 10)));
+
+        assertThat(appliedRows()).containsExactlyInAnyOrder(
+                row(Period.DAY, DAY, 30, 10, 1),
+                row(Period.WEEK, WEEK, 30, 10, 1),
+                row(Period.MONTH, MONTH, 30, 10, 1));
+        verify(readingStreakService).recordDays(USER_ID, Set.of(DAY));
+        verify(readingHeatmapService).recordMinutes(USER_ID, Map.of(DAY, 30L));
+    }
+
+    @Test
+    void deletedSessionSubtractsFromEachPeriod() {
+        service.recordChange(USER_ID, List.of(new Contribution(DAY, 30, 10)), List.of());
+
+        assertThat(appliedRows()).containsExactlyInAnyOrder(
+                row(Period.DAY, DAY, -30, -10, -1),
+                row(Period.WEEK, WEEK, -30, -10, -1),
+                row(Period.MONTH, MONTH, -30, -10, -1));
+        verify(readingHeatmapService).recordMinutes(USER_ID, Map.of(DAY, -30L));
+    }
+
+    @Test
+    void movingASessionWithinTheWeekOnlyChangesDays() {
+        LocalDate nextDay = DAY.plusDays(1);
+
+        service.recordChange(USER_ID, List.of(new Contribution(DAY, 30, 10)), List.of(new Contribution(nextDay, 30, 10)));
+
+        assertThat(appliedRows()).containsExactlyInAnyOrder(
+                row(Period.DAY, DAY, -30, -10, -1),
+                row(Period.DAY, nextDay, 30, 10, 1));
+        verify(readingStreakService).recordDays(USER_ID, Set.of(DAY, nextDay));
+        verify(readingHeatmapService).recordMinutes(USER_ID, Map.of(DAY, -30L, nextDay, 30L));
+    }
+
+    @Test
+    void editingMinutesOnlyKeepsTheSessionCount() {
+        service.recordChange(USER_ID, List.of(new Contribution(DAY, 30, 10)), List.of(new Contribution(DAY, 45, 10)));
+
+        assertThat(appliedRows()).containsExactlyInAnyOrder(
+                row(Period.DAY, DAY, 15, 0, 0),
+                row(Period.WEEK, WEEK, 15, 0, 0),
+                row(Period.MONTH, MONTH, 15, 0, 0));
+    }
+
+    @Test
+    void unchangedContributionWritesNothing() {
+        service.recordChange(USER_ID, List.of(new Contribution(DAY, 30, 10)), List.of(new Contribution(DAY, 30, 10)));
+
+        verify(rollupRepository, never()).applyDeltas(any());
+        verify(readingStreakService, never()).recordDays(anyLong(), anyCollection());
+        verify(readingHeatmapService, never()).recordMinutes(anyLong(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Object>> appliedRows() {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).applyDeltas(rows.capture());
+        return rows.getValue().stream().map(Arrays::asList).toList();
+    }
+
+    private static List<Object> row(Period period, LocalDate periodStart, long minutes, long pages, int sessions) {
+        return List.of(USER_ID, period, periodStart, minutes, pages, sessions);
+    }
+}
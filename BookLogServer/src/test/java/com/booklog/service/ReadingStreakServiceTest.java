@@ -0,0 +1,211 @@
+package com.booklog.service;
+
+import com.booklog.entity.ReadingStreak;
+import com.booklog.repository.ReadingRollupRepository;
+import com.booklog.repository.ReadingStreakRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the incremental streak updates of {@link ReadingStreakService#recordDays} against the day
+ * rollups they are derived from, which are kept here as an in-memory set of active days.
+ */
+class ReadingStreakServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final LocalDate START = LocalDate.of(2024, 3, 1);
+
+    private final TreeSet<LocalDate> active = new TreeSet<>();
+    private ReadingStreak stored;
+    private ReadingStreakService service;
+
+    @BeforeEach
+    void setUp() {
+        ReadingStreakRepository streakRepository = mock(ReadingStreakRepository.class);
+        when(streakRepository.findByUserId(USER_ID)).thenAnswer(inv -> Optional.ofNullable(stored));
+        when(streakRepository.save(any(ReadingStreak.class))).thenAnswer(inv -> stored = inv.getArgument(0));
+
+        ReadingRollupRepository rollupRepository = mock(ReadingRollupRepository.class);
+        when(rollupRepository.findActiveDays(eq(USER_ID), any(), any())).thenAnswer(inv -> List.copyOf(
+                active.subSet(inv.getArgument(1), true, inv.getArgument(2), true)));
+        when(rollupRepository.findAllActiveDays(USER_ID)).thenAnswer(inv -> List.copyOf(active));
+        when(rollupRepository.findLastActiveDayBefore(eq(USER_ID), any()))
+                .thenAnswer(inv -> active.lower(inv.getArgument(1)));
+
+        service = new ReadingStreakService(streakRepository, rollupRepository, mock(UserService.class));
+    }
+
+    @Test
+    void readingTheNextDayExtendsTheRun() {
+        read(1, 2);
+        read(3);
+
+        assertStreak(1, 3, 3);
+    }
+
+    @Test
+    void readingAfterAGapStartsANewRun() {
+        read(1, 2, 3);
+        read(5);
+
+        assertStreak(5, 5, 3);
+    }
+
+    @Test
+    void backdateThatClosesTheGapJoinsTheLatestRun() {
+        read(1, 2, 4, 5);
+        assertStreak(4, 5, 2);
+
+        read(3);
+
+        assertStreak(1, 5, 5);
+    }
+
+    @Test
+    void backdateBeforeAnOlderRunOnlyRaisesTheLongest() {
+        read(1, 2, 10, 11);
+        read(4);
+        assertStreak(10, 11, 2);
+
+        read(3);
+
+        assertStreak(10, 11, 4);
+    }
+
+    @Test
+    void removingTheLastDayMovesTheRunBack() {
+        read(1, 2, 3, 4, 5);
+
+        unread(5);
+
+        assertStreak(1, 4, 4);
+    }
+
+    @Test
+    void removingTheLastDayAfterAGapFallsBackToTheEarlierRun() {
+        read(1, 2, 3, 7);
+
+        unread(7);
+
+        assertStreak(1, 3, 3);
+    }
+
+    @Test
+    void removingTheOnlyDayClearsTheStreak() {
+        read(1);
+
+        unread(1);
+
+        assertThat(stored.getRunStart()).isNull();
+        assertThat(stored.getLastActiveDay()).isNull();
+        assertThat(stored.getLongestStreak()).isZero();
+    }
+
+    @Test
+    void splittingTheLongestRunRecomputesTheLongest() {
+        read(1, 2, 3, 4, 5, 10, 11, 12);
+
+        unread(3);
+
+        assertStreak(10, 12, 3);
+    }
+
+    @Test
+    void splittingAShorterRunKeepsTheLongest() {
+        read(1, 2, 3, 4, 5, 10, 11, 12);
+
+        unread(11);
+
+        assertStreak(12, 12, 5);
+    }
+
+    @Test
+    void splittingTheLatestRunMovesItsStart() {
+        read(1, 2, 3, 4, 5);
+
+        unread(2);
+
+        assertStreak(3, 5, 3);
+    }
+
+    @Test
+    void randomChangesMatchAFullRecompute() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            int day = random.nextInt(120);
+            int other = random.nextInt(120);
+            if (random.nextInt(3) == 0) {
+                unread(day, other);
+            } else {
+                read(day, other);
+            }
+
+            assertThat(state(stored)).as("after step %d", i).isEqualTo(expectedState());
+        }
+    }
+
+    private void read(int... days) {
+        List<LocalDate> changed = new ArrayList<>();
+        for (int day : days) {
+            active.add(day(day));
+            changed.add(day(day));
+        }
+        service.recordDays(USER_ID, changed);
+    }
+
+    private void unread(int... days) {
+        List<LocalDate> changed = new ArrayList<>();
+        for (int day : days) {
+            active.remove(day(day));
+            changed.add(day(day));
+        }
+        service.recordDays(USER_ID, changed);
+    }
+
+    private void assertStreak(int runStart, int lastActiveDay, int longest) {
+        assertThat(state(stored)).isEqualTo(List.of(day(runStart), day(lastActiveDay), longest));
+    }
+
+    private List<Object> expectedState() {
+        if (active.isEmpty()) {
+            return state(ReadingStreak.builder().build());
+        }
+
+        int longest = 0;
+        LocalDate runStart = null;
+        LocalDate previous = null;
+        for (LocalDate day : active) {
+            if (previous == null || !day.equals(previous.plusDays(1))) {
+                runStart = day;
+            }
+            longest = Math.max(longest, (int) (day.toEpochDay() - runStart.toEpochDay()) + 1);
+            previous = day;
+        }
+        return state(ReadingStreak.builder().runStart(runStart).lastActiveDay(active.last()).longestStreak(longest).build());
+    }
+
+    private static List<Object> state(ReadingStreak streak) {
+        List<Object> state = new ArrayList<>();
+        state.add(streak.getRunStart());
+        state.add(streak.getLastActiveDay());
+        state.add(streak.getLongestStreak());
+        return state;
+    }
+
+    private static LocalDate day(int day) {
+        return START.plusDays(day - 1);
+    }
+}
@@ -0,0 +1,147 @@
+package com.booklog.service;
+
+import com.booklog.entity.Book;
+import com.booklog.entity.LibraryBook;
+import com.booklog.entity.LibraryBook.BookStatus;
+import com.booklog.repository.LibraryBookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the cached lists of {@link RecentlyReadCache} match the library, which is kept here as an
+ * in-memory map of entries. No transaction is active, so updates apply immediately.
+ */
+class RecentlyReadCacheTest {
+
+    private static final Long USER_ID = 1L;
+    private static final LocalDate START = LocalDate.of(2024, 3, 1);
+
+    private final Map<Long, LibraryBook> library = new HashMap<>();
+    private LibraryBookRepository libraryBookRepository;
+    private RecentlyReadCache cache;
+
+    @BeforeEach
+    void setUp() {
+        libraryBookRepository = mock(LibraryBookRepository.class);
+        when(libraryBookRepository.findRecentlyReadByUserId(eq(USER_ID), eq(BookStatus.READING), any()))
+                .thenAnswer(inv -> library.values().stream()
+                        .filter(entry -> entry.getStatus() == BookStatus.READING)
+                        .sorted(Comparator.comparing(LibraryBook::getLastReadDate).reversed()
+                                .thenComparing(Comparator.comparing(LibraryBook::getId).reversed()))
+                        .limit(inv.<Pageable>getArgument(2).getPageSize())
+                        .map(entry -> new Object[]{entry.getId(), entry.getBook().getId(), entry.getLastReadDate()})
+                        .toList());
+
+        cache = new RecentlyReadCache(libraryBookRepository);
+    }
+
+    @Test
+    void completeListIsUpdatedInPlace() {
+        save(1, BookStatus.READING, 1);
+        save(2, BookStatus.READING, 2);
+        save(3, BookStatus.READING, 3);
+        assertThat(cache.getLibraryBookIds(USER_ID)).containsExactly(3L, 2L, 1L);
+
+        save(2, BookStatus.FINISHED, 2);
+        save(1, BookStatus.READING, 4);
+
+        assertThat(cache.getLibraryBookIds(USER_ID)).containsExactly(1L, 3L);
+        assertLoads(1);
+    }
+
+    @Test
+    void entryLeavingAnIncompleteListReloadsIt() {
+        for (int i = 1; i <= 7; i++) {
+            save(i, BookStatus.READING, i);
+        }
+        assertThat(cache.getLibraryBookIds(USER_ID)).containsExactly(7L, 6L, 5L, 4L, 3L);
+
+        save(5, BookStatus.FINISHED, 5);
+
+        // The list cannot know that entry 2 is next
+        assertThat(cache.getLibraryBookIds(USER_ID)).containsExactly(7L, 6L, 4L, 3L, 2L);
+        assertLoads(2);
+    }
+
+    @Test
+    void overflowMakesACompleteListIncomplete() {
+        for (int i = 1; i <= 4; i++) {
+            save(i, BookStatus.READING, i);
+        }
+        cache.getLibraryBookIds(USER_ID);
+        save(5, BookStatus.READING, 5);
+        save(6, BookStatus.READING, 6);
+        assertThat(cache.getLibraryBookIds(USER_ID)).containsExactly(6L, 5L, 4L, 3L, 2L);
+        assertLoads(1);
+
+        cache.remove(USER_ID, 6L);
+        library.remove(6L);
+
+        assertThat(cache.getLibraryBookIds(USER_ID)).containsExactly(5L, 4L, 3L, 2L, 1L);
+        assertLoads(2);
+    }
+
+    @Test
+    void touchMovesAListedEntryToTheFront() {
+        save(1, BookStatus.READING, 1);
+        save(2, BookStatus.READING, 2);
+        cache.getLibraryBookIds(USER_ID);
+
+        cache.touch(USER_ID, bookIdOf(1));
+
+        assertThat(cache.getLibraryBookIds(USER_ID)).containsExactly(1L, 2L);
+        assertLoads(1);
+    }
+
+    @Test
+    void touchOfAnUnlistedEntryDropsTheList() {
+        for (int i = 1; i <= 6; i++) {
+            save(i, BookStatus.READING, i);
+        }
+        cache.getLibraryBookIds(USER_ID);
+
+        // Entry 1 is past the list; the progress buffer only knows it was read, not that it is READING
+        cache.touch(USER_ID, bookIdOf(1));
+        library.get(1L).setLastReadDate(START.plusDays(10));
+
+        assertThat(cache.getLibraryBookIds(USER_ID)).containsExactly(1L, 6L, 5L, 4L, 3L);
+        assertLoads(2);
+    }
+
+    private void save(long libraryBookId, BookStatus status, int day) {
+        LibraryBook entry = library.computeIfAbsent(libraryBookId, id -> {
+            Book book = new Book();
+            book.setId(bookIdOf(id));
+            LibraryBook created = new LibraryBook();
+            created.setId(id);
+            created.setBook(book);
+            return created;
+        });
+        entry.setStatus(status);
+        entry.setLastReadDate(START.plusDays(day));
+        cache.update(USER_ID, entry);
+    }
+
+    private static Long bookIdOf(long libraryBookId) {
+        return libraryBookId + 100;
+    }
+
+    private void assertLoads(int loads) {
+        verify(libraryBookRepository, times(loads)).findRecentlyReadByUserId(eq(USER_ID), eq(BookStatus.READING), any());
+    }
+}
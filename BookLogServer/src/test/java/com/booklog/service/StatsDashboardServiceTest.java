@@ -0,0 +1,149 @@
+package com.booklog.service;
+
+import com.booklog.dto.StatsDashboard;
+import com.booklog.entity.ReadingSession;
+import com.booklog.entity.User;
+import com.booklog.event.ChangeType;
+import com.booklog.event.ReadingSessionChangedEvent;
+import com.booklog.repository.BookRepository;
+import com.booklog.repository.ReadingGoalRepository;
+import com.booklog.repository.ReadingHighlightRepository;
+import com.booklog.repository.ReadingSessionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.ZoneId;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the section deadline and the dashboard cache of {@link StatsDashboardService}. Every section
+ * is backed by a mock, and the library section can be held back to make it miss the deadline.
+ */
+class StatsDashboardServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final long SECTION_TIMEOUT_MILLIS = 200;
+
+    // Zones 26 hours apart, so switching between them always moves the user to another date
+    private static final ZoneId WEST = ZoneId.of("Etc/GMT+12");
+    private static final ZoneId EAST = ZoneId.of("Etc/GMT-14");
+
+    private final CountDownLatch libraryReleased = new CountDownLatch(1);
+    private volatile boolean holdLibrary;
+
+    private LibraryBookService libraryBookService;
+    private UserService userService;
+    private VersionStampService versionStampService;
+    private StatsDashboardService service;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(USER_ID);
+        userService = mock(UserService.class);
+        when(userService.getUserById(USER_ID)).thenReturn(user);
+        when(userService.getZone(any(User.class))).thenReturn(WEST);
+
+        versionStampService = mock(VersionStampService.class);
+        when(versionStampService.getStamp(USER_ID)).thenReturn("1");
+
+        libraryBookService = mock(LibraryBookService.class);
+        when(libraryBookService.getLibraryStatsSummary(USER_ID)).thenAnswer(inv -> {
+            if (holdLibrary) {
+                libraryReleased.await(10, TimeUnit.SECONDS);
+            }
+            return null;
+        });
+
+        service = new StatsDashboardService(libraryBookService, mock(ReadingRollupService.class),
+                mock(ReadingStreakService.class), userService, versionStampService,
+                mock(ReadingSessionRepository.class), mock(ReadingGoalRepository.class),
+                mock(ReadingHighlightRepository.class), mock(BookRepository.class),
+                mock(PlatformTransactionManager.class), 4, SECTION_TIMEOUT_MILLIS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        libraryReleased.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void slowSectionIsListedAsUnavailable() {
+        holdLibrary = true;
+
+        long start = System.nanoTime();
+        StatsDashboard dashboard = service.getDashboard(USER_ID);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5000);
+        assertThat(dashboard.getUnavailable()).containsExactly("library");
+        assertThat(dashboard.getLibrary()).isNull();
+        assertThat(dashboard.getMostReadBooks()).isEmpty();
+        assertThat(dashboard.getRecentHighlights()).isEmpty();
+    }
+
+    @Test
+    void partialDashboardIsNotCached() {
+        holdLibrary = true;
+        service.getDashboard(USER_ID);
+        holdLibrary = false;
+        libraryReleased.countDown();
+
+        StatsDashboard dashboard = service.getDashboard(USER_ID);
+
+        assertThat(dashboard.getUnavailable()).isEmpty();
+        verify(libraryBookService, times(2)).getLibraryStatsSummary(USER_ID);
+    }
+
+    @Test
+    void completeDashboardIsCached() {
+        StatsDashboard first = service.getDashboard(USER_ID);
+
+        assertThat(service.getDashboard(USER_ID)).isSameAs(first);
+        verify(libraryBookService, times(1)).getLibraryStatsSummary(USER_ID);
+    }
+
+    @Test
+    void versionStampBumpAssemblesItAgain() {
+        StatsDashboard first = service.getDashboard(USER_ID);
+        when(versionStampService.getStamp(USER_ID)).thenReturn("2");
+
+        assertThat(service.getDashboard(USER_ID)).isNotSameAs(first);
+        verify(libraryBookService, times(2)).getLibraryStatsSummary(USER_ID);
+    }
+
+    @Test
+    void sessionChangeAssemblesItAgain() {
+        StatsDashboard first = service.getDashboard(USER_ID);
+        User user = new User();
+        user.setId(USER_ID);
+        ReadingSession session = new ReadingSession();
+        session.setUser(user);
+        service.onSessionChanged(new ReadingSessionChangedEvent(session, ChangeType.CREATED));
+
+        assertThat(service.getDashboard(USER_ID)).isNotSameAs(first);
+        verify(libraryBookService, times(2)).getLibraryStatsSummary(USER_ID);
+    }
+
+    @Test
+    void newDayAssemblesItAgain() {
+        StatsDashboard first = service.getDashboard(USER_ID);
+        when(userService.getZone(any(User.class))).thenReturn(EAST);
+
+        StatsDashboard next = service.getDashboard(USER_ID);
+
+        assertThat(next).isNotSameAs(first);
+        assertThat(next.getDate()).isAfter(first.getDate());
+        verify(libraryBookService, times(2)).getLibraryStatsSummary(USER_ID);
+    }
+}